@@ -1,48 +1,65 @@
-package edu.ccrm.config;
-
-import java.time.LocalDateTime;
-
-// Singleton pattern implementation
-public class AppConfig {
-    private static AppConfig instance;
-    private String dataFolderPath;
-    private String backupFolderPath;
-    private LocalDateTime startupTime;
-    
-    private AppConfig() {
-        this.dataFolderPath = "./data";
-        this.backupFolderPath = "./backups";
-        this.startupTime = LocalDateTime.now();
-        System.out.println("AppConfig initialized at: " + startupTime);
-    }
-    
-    public static AppConfig getInstance() {
-        if (instance == null) {
-            synchronized (AppConfig.class) {
-                if (instance == null) {
-                    instance = new AppConfig();
-                }
-            }
-        }
-        return instance;
-    }
-    
-    public String getDataFolderPath() { return dataFolderPath; }
-    public String getBackupFolderPath() { return backupFolderPath; }
-    public LocalDateTime getStartupTime() { return startupTime; }
-    
-    public void setDataFolderPath(String dataFolderPath) {
-        this.dataFolderPath = dataFolderPath;
-    }
-    
-    public void setBackupFolderPath(String backupFolderPath) {
-        this.backupFolderPath = backupFolderPath;
-    }
-    
-    public void displayInfo() {
-        System.out.println("=== Application Configuration ===");
-        System.out.println("Data Folder: " + dataFolderPath);
-        System.out.println("Backup Folder: " + backupFolderPath);
-        System.out.println("Startup Time: " + startupTime);
-    }
-}
\ No newline at end of file
+package edu.ccrm.config;
+
+import edu.ccrm.io.SnapshotFormat;
+
+import java.time.LocalDateTime;
+
+// Singleton pattern implementation
+public class AppConfig {
+    private static AppConfig instance;
+    private String dataFolderPath;
+    private String backupFolderPath;
+    private long parallelImportThreshold;
+    private SnapshotFormat snapshotFormat;
+    private LocalDateTime startupTime;
+    
+    private AppConfig() {
+        this.dataFolderPath = "./data";
+        this.backupFolderPath = "./backups";
+        this.parallelImportThreshold = 64L * 1024 * 1024; // Files above 64 MB are parsed in parallel
+        this.snapshotFormat = SnapshotFormat.CSV;
+        this.startupTime = LocalDateTime.now();
+        System.out.println("AppConfig initialized at: " + startupTime);
+    }
+    
+    public static AppConfig getInstance() {
+        if (instance == null) {
+            synchronized (AppConfig.class) {
+                if (instance == null) {
+                    instance = new AppConfig();
+                }
+            }
+        }
+        return instance;
+    }
+    
+    public String getDataFolderPath() { return dataFolderPath; }
+    public String getBackupFolderPath() { return backupFolderPath; }
+    public long getParallelImportThreshold() { return parallelImportThreshold; }
+    public SnapshotFormat getSnapshotFormat() { return snapshotFormat; }
+    public LocalDateTime getStartupTime() { return startupTime; }
+    
+    public void setDataFolderPath(String dataFolderPath) {
+        this.dataFolderPath = dataFolderPath;
+    }
+    
+    public void setBackupFolderPath(String backupFolderPath) {
+        this.backupFolderPath = backupFolderPath;
+    }
+    
+    public void setParallelImportThreshold(long parallelImportThreshold) {
+        this.parallelImportThreshold = parallelImportThreshold;
+    }
+    
+    public void setSnapshotFormat(SnapshotFormat snapshotFormat) {
+        this.snapshotFormat = snapshotFormat;
+    }
+    
+    public void displayInfo() {
+        System.out.println("=== Application Configuration ===");
+        System.out.println("Data Folder: " + dataFolderPath);
+        System.out.println("Backup Folder: " + backupFolderPath);
+        System.out.println("Snapshot Format: " + snapshotFormat);
+        System.out.println("Startup Time: " + startupTime);
+    }
+}
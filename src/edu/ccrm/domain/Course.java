@@ -1,87 +1,241 @@
-package edu.ccrm.domain;
-
-import java.time.LocalDateTime;
-
-public class Course {
-    private String code;
-    private String title;
-    private int credits;
-    private String instructor;
-    private Semester semester;
-    private String department;
-    private boolean active;
-    private LocalDateTime createdAt;
-    
-    // Private constructor for Builder pattern
-    private Course(Builder builder) {
-        this.code = builder.code;
-        this.title = builder.title;
-        this.credits = builder.credits;
-        this.instructor = builder.instructor;
-        this.semester = builder.semester;
-        this.department = builder.department;
-        this.active = builder.active;
-        this.createdAt = LocalDateTime.now();
-    }
-    
-    // Builder pattern implementation
-    public static class Builder {
-        private String code;
-        private String title;
-        private int credits;
-        private String instructor = "TBA";
-        private Semester semester = Semester.FALL;
-        private String department = "General";
-        private boolean active = true;
-        
-        public Builder(String code, String title, int credits) {
-            this.code = code;
-            this.title = title;
-            this.credits = credits;
-        }
-        
-        public Builder instructor(String instructor) {
-            this.instructor = instructor;
-            return this;
-        }
-        
-        public Builder semester(Semester semester) {
-            this.semester = semester;
-            return this;
-        }
-        
-        public Builder department(String department) {
-            this.department = department;
-            return this;
-        }
-        
-        public Builder active(boolean active) {
-            this.active = active;
-            return this;
-        }
-        
-        public Course build() {
-            return new Course(this);
-        }
-    }
-    
-    // Getters
-    public String getCode() { return code; }
-    public String getTitle() { return title; }
-    public int getCredits() { return credits; }
-    public String getInstructor() { return instructor; }
-    public Semester getSemester() { return semester; }
-    public String getDepartment() { return department; }
-    public boolean isActive() { return active; }
-    public LocalDateTime getCreatedAt() { return createdAt; }
-    
-    // Setters
-    public void setInstructor(String instructor) { this.instructor = instructor; }
-    public void setActive(boolean active) { this.active = active; }
-    
-    @Override
-    public String toString() {
-        return String.format("Course[%s] %s (%d credits) - %s, %s", 
-            code, title, credits, instructor, semester);
-    }
-}
\ No newline at end of file
+package edu.ccrm.domain;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Seats are a lock-free counter: tryReserveSeat() is a compare-and-set loop against the
+// capacity, so any number of concurrent registrations can never take more seats than
+// exist, and none of them blocks another. The waitlist is a FIFO of student IDs.
+//
+// Code, instructor and department are held as Symbols IDs; the getters return Strings.
+public class Course {
+    public static final int UNLIMITED = 0;
+    
+    private int code;
+    private String title;
+    private int credits;
+    private volatile int instructor;
+    private Semester semester;
+    private int department;
+    private volatile boolean active;
+    private LocalDateTime createdAt;
+    private int capacity;
+    private final AtomicInteger seatsTaken = new AtomicInteger();
+    private final Queue<String> waitlist = new ConcurrentLinkedQueue<>();
+    private final Set<String> waitlisted = ConcurrentHashMap.newKeySet();
+    
+    // Private constructor for Builder pattern
+    private Course(Builder builder) {
+        this.code = Symbols.COURSE_CODES.intern(builder.code);
+        this.title = builder.title;
+        this.credits = builder.credits;
+        this.instructor = Symbols.INSTRUCTORS.intern(builder.instructor);
+        this.semester = builder.semester;
+        this.department = Symbols.DEPARTMENTS.intern(builder.department);
+        this.active = builder.active;
+        this.capacity = builder.capacity;
+        this.createdAt = LocalDateTime.now();
+    }
+    
+    // Point-in-time snapshot of the catalog aggregates StatisticsEngine keeps up to date
+    public static class Statistics {
+        private final int totalCourses;
+        private final int activeCourses;
+        private final double averageCredits;
+        private final int[] semesterCounts;
+        
+        public Statistics(int totalCourses, int activeCourses, double averageCredits, int[] semesterCounts) {
+            this.totalCourses = totalCourses;
+            this.activeCourses = activeCourses;
+            this.averageCredits = averageCredits;
+            this.semesterCounts = semesterCounts.clone();
+        }
+        
+        public int getTotalCourses() { return totalCourses; }
+        public int getActiveCourses() { return activeCourses; }
+        public double getAverageCredits() { return averageCredits; }
+        public int getCount(Semester semester) { return semesterCounts[semester.ordinal()]; }
+    }
+    
+    // Builder pattern implementation
+    public static class Builder {
+        private String code;
+        private String title;
+        private int credits;
+        private String instructor = "TBA";
+        private Semester semester = Semester.FALL;
+        private String department = "General";
+        private boolean active = true;
+        private int capacity = UNLIMITED;
+        
+        public Builder(String code, String title, int credits) {
+            this.code = code;
+            this.title = title;
+            this.credits = credits;
+        }
+        
+        public Builder instructor(String instructor) {
+            this.instructor = instructor;
+            return this;
+        }
+        
+        public Builder semester(Semester semester) {
+            this.semester = semester;
+            return this;
+        }
+        
+        public Builder department(String department) {
+            this.department = department;
+            return this;
+        }
+        
+        public Builder active(boolean active) {
+            this.active = active;
+            return this;
+        }
+        
+        // Seat limit; UNLIMITED (0) for courses without one
+        public Builder capacity(int capacity) {
+            if (capacity < 0) {
+                throw new IllegalArgumentException("Capacity cannot be negative: " + capacity);
+            }
+            this.capacity = capacity;
+            return this;
+        }
+        
+        public Course build() {
+            return new Course(this);
+        }
+    }
+    
+    // Getters
+    public String getCode() { return Symbols.COURSE_CODES.valueOf(code); }
+    public String getTitle() { return title; }
+    public int getCredits() { return credits; }
+    public String getInstructor() { return Symbols.INSTRUCTORS.valueOf(instructor); }
+    public Semester getSemester() { return semester; }
+    public String getDepartment() { return Symbols.DEPARTMENTS.valueOf(department); }
+    public boolean isActive() { return active; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public int getCodeId() { return code; }
+    public int getInstructorId() { return instructor; }
+    public int getDepartmentId() { return department; }
+    public int getCapacity() { return capacity; }
+    public boolean hasCapacityLimit() { return capacity != UNLIMITED; }
+    public int getEnrolledCount() { return seatsTaken.get(); }
+    
+    public int getAvailableSeats() {
+        return hasCapacityLimit() ? Math.max(0, capacity - seatsTaken.get()) : Integer.MAX_VALUE;
+    }
+    
+    // --- Seats ---
+    
+    // Takes a seat if one is free. Never blocks; a failed CAS means another registration
+    // took a seat in between, so the loop re-reads and tries again.
+    public boolean tryReserveSeat() {
+        while (true) {
+            int taken = seatsTaken.get();
+            if (hasCapacityLimit() && taken >= capacity) {
+                return false;
+            }
+            if (seatsTaken.compareAndSet(taken, taken + 1)) {
+                return true;
+            }
+        }
+    }
+    
+    public void releaseSeat() {
+        seatsTaken.updateAndGet(taken -> Math.max(0, taken - 1));
+    }
+    
+    // Used when enrollments are reloaded - the count comes from the students' schedules
+    public void restoreEnrolledCount(int enrolled) {
+        seatsTaken.set(enrolled);
+    }
+    
+    // --- Waitlist ---
+    
+    // Appends the student to the waitlist; false if they are already on it
+    public boolean addToWaitlist(String studentId) {
+        if (!waitlisted.add(studentId)) {
+            return false;
+        }
+        waitlist.add(studentId);
+        return true;
+    }
+    
+    // Next student in line, or null if nobody is waiting
+    public String pollWaitlist() {
+        String studentId;
+        while ((studentId = waitlist.poll()) != null) {
+            if (waitlisted.remove(studentId)) {
+                return studentId;
+            }
+            // Left the waitlist while queued - skip
+        }
+        return null;
+    }
+    
+    public boolean removeFromWaitlist(String studentId) {
+        boolean removed = waitlisted.remove(studentId);
+        if (removed) {
+            waitlist.remove(studentId);
+        }
+        return removed;
+    }
+    
+    // Whether anyone may be in line. Entries of students who left are only dropped by
+    // pollWaitlist, so true can mean a poll finds nobody.
+    public boolean hasWaitlist() {
+        return !waitlist.isEmpty();
+    }
+    
+    public boolean isWaitlisted(String studentId) {
+        return waitlisted.contains(studentId);
+    }
+    
+    // 1-based position in line, or -1 if the student is not waiting
+    public int getWaitlistPosition(String studentId) {
+        int position = 1;
+        for (String waiting : waitlist) {
+            if (waiting.equals(studentId)) {
+                return waitlisted.contains(studentId) ? position : -1;
+            }
+            position++;
+        }
+        return -1;
+    }
+    
+    public List<String> getWaitlist() {
+        List<String> waiting = new ArrayList<>();
+        for (String studentId : waitlist) {
+            if (waitlisted.contains(studentId)) waiting.add(studentId);
+        }
+        return waiting;
+    }
+    
+    // A course re-added under the same code keeps the seats and queue of the one it replaces
+    public void takeOverEnrollment(Course replaced) {
+        seatsTaken.set(replaced.seatsTaken.get());
+        for (String studentId : replaced.getWaitlist()) {
+            addToWaitlist(studentId);
+        }
+    }
+    
+    // Setters
+    public void setInstructor(String instructor) { this.instructor = Symbols.INSTRUCTORS.intern(instructor); }
+    public void setActive(boolean active) { this.active = active; }
+    
+    @Override
+    public String toString() {
+        String course = String.format("Course[%s] %s (%d credits) - %s, %s", 
+            getCode(), title, credits, getInstructor(), semester);
+        return hasCapacityLimit() ? course + String.format(" [%d/%d seats]", seatsTaken.get(), capacity) : course;
+    }
+}
@@ -0,0 +1,60 @@
+package edu.ccrm.domain;
+
+import edu.ccrm.util.SymbolTable;
+
+// One grade on a transcript: the course it was earned in, the term and the course's
+// credits, which weight it in the GPA. Grades recorded before grades were tied to
+// courses have no course or semester and weigh one credit, so a transcript of only
+// such grades keeps its old plain-average GPA. The course is held as its Symbols ID.
+public final class GradeEntry {
+    public static final int UNATTRIBUTED_WEIGHT = 1;
+    
+    private final Grade grade;
+    private final int courseCode;
+    private final Semester semester;
+    private final int credits;
+    
+    public GradeEntry(Grade grade, String courseCode, Semester semester, int credits) {
+        this(grade, Symbols.COURSE_CODES.intern(courseCode), semester, credits);
+    }
+    
+    private GradeEntry(Grade grade, int courseCode, Semester semester, int credits) {
+        this.grade = grade;
+        this.courseCode = courseCode;
+        this.semester = semester;
+        this.credits = credits;
+    }
+    
+    public static GradeEntry unattributed(Grade grade) {
+        return new GradeEntry(grade, null, null, 0);
+    }
+    
+    public static GradeEntry forCourse(Course course, Grade grade) {
+        return new GradeEntry(grade, course.getCode(), course.getSemester(), course.getCredits());
+    }
+    
+    // courseId is a Symbols.COURSE_CODES ID, or SymbolTable.NOT_FOUND for no course
+    public static GradeEntry ofIds(Grade grade, int courseId, Semester semester, int credits) {
+        Symbols.COURSE_CODES.valueOf(courseId); // Rejects unknown IDs
+        return new GradeEntry(grade, courseId, semester, credits);
+    }
+    
+    public Grade getGrade() { return grade; }
+    public String getCourseCode() { return Symbols.COURSE_CODES.valueOf(courseCode); }
+    public int getCourseId() { return courseCode; }
+    public Semester getSemester() { return semester; }
+    public int getCredits() { return credits; }
+    public boolean isAttributed() { return courseCode != SymbolTable.NOT_FOUND; }
+    
+    // Credits this grade counts for in a credit-weighted GPA
+    public int getWeight() {
+        return isAttributed() ? credits : UNATTRIBUTED_WEIGHT;
+    }
+    
+    @Override
+    public String toString() {
+        return isAttributed()
+            ? String.format("%s %s (%d credits): %s", getCourseCode(), semester, credits, grade)
+            : grade.toString();
+    }
+}
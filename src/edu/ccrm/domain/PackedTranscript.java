@@ -0,0 +1,113 @@
+package edu.ccrm.domain;
+
+import edu.ccrm.util.SymbolTable;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+// A student's own grades, before it joins a StudentService. Packed GRADE_BYTES per grade
+// in one copy-on-write array, so entries() is a stable snapshot that costs no copying,
+// with running credit-weighted totals behind gpa(). Not thread-safe on its own; Student
+// calls it under its monitor.
+final class PackedTranscript implements Transcript {
+    // Record layout: grade ordinal, semester ordinal (-1 for none), credits (unsigned),
+    // then the course code ID (SymbolTable.NOT_FOUND for none) as four big-endian bytes
+    private static final int GRADE_BYTES = 7;
+    private static final Grade[] GRADES = Grade.values();
+    private static final Semester[] SEMESTERS = Semester.values();
+    private static final byte[] NO_GRADES = new byte[0];
+    
+    private volatile byte[] grades = NO_GRADES; // In recorded order
+    private double gradePointSum;
+    private int gradedCredits;
+    
+    @Override
+    public List<GradeEntry> entries() {
+        byte[] records = grades;
+        return new AbstractList<GradeEntry>() {
+            @Override public GradeEntry get(int index) { return entryAt(records, Objects.checkIndex(index, size())); }
+            @Override public int size() { return records.length / GRADE_BYTES; }
+        };
+    }
+    
+    @Override
+    public GradeEntry last() {
+        byte[] records = grades;
+        return records.length == 0 ? null : entryAt(records, records.length / GRADE_BYTES - 1);
+    }
+    
+    @Override
+    public int size() {
+        return grades.length / GRADE_BYTES;
+    }
+    
+    @Override
+    public double gpa() {
+        return gradedCredits == 0 ? 0.0 : gradePointSum / gradedCredits;
+    }
+    
+    @Override
+    public void add(GradeEntry entry) {
+        byte[] current = grades;
+        byte[] updated = Arrays.copyOf(current, current.length + GRADE_BYTES);
+        pack(updated, current.length, entry);
+        grades = updated;
+        apply(entry, 1);
+    }
+    
+    @Override
+    public GradeEntry correct(int index, Grade grade) {
+        GradeEntry previous = entryAt(grades, Objects.checkIndex(index, size()));
+        GradeEntry corrected = GradeEntry.ofIds(grade, previous.getCourseId(), previous.getSemester(),
+            previous.getCredits());
+        byte[] updated = grades.clone();
+        pack(updated, index * GRADE_BYTES, corrected);
+        grades = updated;
+        apply(previous, -1);
+        apply(corrected, 1);
+        return previous;
+    }
+    
+    @Override
+    public GradeEntry remove(int index) {
+        byte[] current = grades;
+        GradeEntry removed = entryAt(current, Objects.checkIndex(index, size()));
+        byte[] updated = new byte[current.length - GRADE_BYTES];
+        int at = index * GRADE_BYTES;
+        System.arraycopy(current, 0, updated, 0, at);
+        System.arraycopy(current, at + GRADE_BYTES, updated, at, updated.length - at);
+        grades = updated.length == 0 ? NO_GRADES : updated;
+        apply(removed, -1);
+        return removed;
+    }
+    
+    private void apply(GradeEntry entry, int sign) {
+        gradePointSum += sign * entry.getGrade().getGradePoint() * entry.getWeight();
+        gradedCredits += sign * entry.getWeight();
+    }
+    
+    private static void pack(byte[] records, int at, GradeEntry entry) {
+        Transcript.checkCredits(entry);
+        int course = entry.getCourseId();
+        records[at] = (byte) entry.getGrade().ordinal();
+        records[at + 1] = (byte) (entry.getSemester() == null ? -1 : entry.getSemester().ordinal());
+        records[at + 2] = (byte) entry.getCredits();
+        records[at + 3] = (byte) (course >>> 24);
+        records[at + 4] = (byte) (course >>> 16);
+        records[at + 5] = (byte) (course >>> 8);
+        records[at + 6] = (byte) course;
+    }
+    
+    private static GradeEntry entryAt(byte[] records, int index) {
+        int at = index * GRADE_BYTES;
+        int course = (records[at + 3] & 0xFF) << 24 | (records[at + 4] & 0xFF) << 16
+            | (records[at + 5] & 0xFF) << 8 | (records[at + 6] & 0xFF);
+        if (course == SymbolTable.NOT_FOUND) {
+            return GradeEntry.unattributed(GRADES[records[at]]);
+        }
+        Semester semester = records[at + 1] < 0 ? null : SEMESTERS[records[at + 1]];
+        return GradeEntry.ofIds(GRADES[records[at]], course, semester, records[at + 2] & 0xFF);
+    }
+}
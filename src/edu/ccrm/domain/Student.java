@@ -1,99 +1,278 @@
-package edu.ccrm.domain;
-import edu.ccrm.exception.MaxCreditLimitExceededException;
-
-import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
-
-public class Student extends Person {
-    private String regNo;
-    private StudentStatus status;
-    private List<String> enrolledCourses;
-    private double totalCredits;
-    private List<Grade> grades;
-    
-    // Static nested class for student statistics
-    public static class Statistics {
-        private int totalStudents;
-        private double averageGPA;
-        
-        public Statistics(int totalStudents, double averageGPA) {
-            this.totalStudents = totalStudents;
-            this.averageGPA = averageGPA;
-        }
-        
-        public int getTotalStudents() { return totalStudents; }
-        public double getAverageGPA() { return averageGPA; }
-    }
-    
-    public Student(String id, Name fullName, String email, String regNo) {
-        super(id, fullName, email);
-        this.regNo = regNo;
-        this.status = StudentStatus.ACTIVE;
-        this.enrolledCourses = new ArrayList<>();
-        this.grades = new ArrayList<>();
-        this.totalCredits = 0.0;
-    }
-    
-    @Override
-    public String getRole() {
-        return "Student";
-    }
-    
-    @Override
-    public void displayProfile() {
-        System.out.println("=== Student Profile ===");
-        System.out.println("ID: " + id);
-        System.out.println("Registration No: " + regNo);
-        System.out.println("Name: " + fullName);
-        System.out.println("Email: " + email);
-        System.out.println("Status: " + status);
-        System.out.println("Total Credits: " + totalCredits);
-        System.out.println("Enrolled Courses: " + enrolledCourses.size());
-        System.out.println("GPA: " + calculateGPA());
-    }
-    
-    public void enrollInCourse(String courseCode, int credits) throws MaxCreditLimitExceededException {
-        if (totalCredits + credits > 18) { // Max credits per semester
-            throw new MaxCreditLimitExceededException("Cannot exceed 18 credits per semester");
-        }
-        
-        if (!enrolledCourses.contains(courseCode)) {
-            enrolledCourses.add(courseCode);
-            totalCredits += credits;
-        }
-    }
-    
-    public void unenrollFromCourse(String courseCode, int credits) {
-        if (enrolledCourses.remove(courseCode)) {
-            totalCredits -= credits;
-        }
-    }
-    
-    public double calculateGPA() {
-        if (grades.isEmpty()) return 0.0;
-        
-        return grades.stream()
-                .mapToDouble(Grade::getGradePoint)
-                .average()
-                .orElse(0.0);
-    }
-    
-    public void addGrade(Grade grade) {
-        this.grades.add(grade);
-    }
-    
-    // Getters and setters
-    public String getRegNo() { return regNo; }
-    public StudentStatus getStatus() { return status; }
-    public List<String> getEnrolledCourses() { return new ArrayList<>(enrolledCourses); }
-    public double getTotalCredits() { return totalCredits; }
-    public List<Grade> getGrades() { return new ArrayList<>(grades); }
-    
-    public void setStatus(StudentStatus status) { this.status = status; }
-    
-    @Override
-    public String toString() {
-        return String.format("Student[%s] %s (%s) - %s", regNo, fullName, email, status);
-    }
-}
\ No newline at end of file
+package edu.ccrm.domain;
+import edu.ccrm.exception.DuplicateEnrollmentException;
+import edu.ccrm.exception.MaxCreditLimitExceededException;
+import edu.ccrm.util.SymbolTable;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntConsumer;
+
+// Enrollment and grade state is changed under the student's monitor, so the credit-cap
+// check and the update it guards happen as one step even with concurrent callers.
+//
+// Kept compact for large rosters: department and course codes are Symbols IDs, and
+// enrollments live in an exact-sized, copy-on-write int array - a change builds a new
+// array and publishes it - so readers use the current one without locking, and the
+// read-only view handed out by the getter is a stable snapshot that costs no copying.
+// Grades live in a Transcript: the student's own until it is added to a StudentService,
+// then the service's GradeStore, so the store is the single copy of every grade.
+public class Student extends Person {
+    public static final int MAX_CREDITS_PER_SEMESTER = 18;
+    
+    private static final int[] NO_COURSES = new int[0];
+    
+    private String regNo;
+    private int department;
+    private volatile StudentStatus status;
+    private volatile int[] enrolledCourses = NO_COURSES; // Sorted course code IDs
+    private int totalCredits;
+    private volatile Transcript transcript = new PackedTranscript();
+    
+    // Static nested class for student statistics - a point-in-time snapshot of the
+    // aggregates StatisticsEngine keeps up to date
+    public static class Statistics {
+        public static final String[] GPA_BANDS = {
+            "Excellent (9.0+)", "Very Good (8.0-8.9)", "Good (7.0-7.9)", "Average (6.0-6.9)", "Below Average (<6.0)"
+        };
+        
+        private final int totalStudents;
+        private final int gradedStudents;
+        private final double averageGPA;
+        private final double averageCredits;
+        private final int[] statusCounts;
+        private final int[] gpaBandCounts;
+        
+        public Statistics(int totalStudents, int gradedStudents, double averageGPA, double averageCredits,
+                          int[] statusCounts, int[] gpaBandCounts) {
+            this.totalStudents = totalStudents;
+            this.gradedStudents = gradedStudents;
+            this.averageGPA = averageGPA;
+            this.averageCredits = averageCredits;
+            this.statusCounts = statusCounts.clone();
+            this.gpaBandCounts = gpaBandCounts.clone();
+        }
+        
+        // Index into GPA_BANDS for a GPA
+        public static int gpaBand(double gpa) {
+            if (gpa >= 9.0) return 0;
+            else if (gpa >= 8.0) return 1;
+            else if (gpa >= 7.0) return 2;
+            else if (gpa >= 6.0) return 3;
+            else return 4;
+        }
+        
+        public int getTotalStudents() { return totalStudents; }
+        public int getGradedStudents() { return gradedStudents; }
+        public double getAverageGPA() { return averageGPA; }
+        public double getAverageCredits() { return averageCredits; }
+        public int getCount(StudentStatus status) { return statusCounts[status.ordinal()]; }
+        public int getBandCount(int band) { return gpaBandCounts[band]; }
+    }
+    
+    public Student(String id, Name fullName, String email, String regNo) {
+        super(id, fullName, email);
+        this.regNo = regNo;
+        this.department = Symbols.DEPARTMENTS.intern("General");
+        this.status = StudentStatus.ACTIVE;
+    }
+    
+    @Override
+    public String getRole() {
+        return "Student";
+    }
+    
+    @Override
+    public synchronized void displayProfile() {
+        System.out.println("=== Student Profile ===");
+        System.out.println("ID: " + id);
+        System.out.println("Registration No: " + regNo);
+        System.out.println("Name: " + fullName);
+        System.out.println("Email: " + email);
+        System.out.println("Department: " + getDepartment());
+        System.out.println("Status: " + status);
+        System.out.println("Total Credits: " + getTotalCredits());
+        System.out.println("Enrolled Courses: " + enrolledCourses.length);
+        System.out.println("GPA: " + calculateGPA());
+    }
+    
+    public synchronized void enrollInCourse(String courseCode, int credits) throws MaxCreditLimitExceededException {
+        checkEnrollment(credits);
+        int id = Symbols.COURSE_CODES.intern(courseCode);
+        if (!isEnrolledIn(id)) {
+            enrolledCourses = withCourses(enrolledCourses, new int[] { id });
+            totalCredits += credits;
+        }
+    }
+    
+    // Throws what enrollInCourse would for these credits, without enrolling
+    public synchronized void checkEnrollment(int credits) throws MaxCreditLimitExceededException {
+        if (!canTakeCredits(credits)) {
+            throw new MaxCreditLimitExceededException("Cannot exceed " + MAX_CREDITS_PER_SEMESTER + " credits per semester");
+        }
+    }
+    
+    // All-or-nothing: duplicates and the credit cap are checked for the whole set (course
+    // code -> credits) in one pass, and nothing is added unless every course can be
+    public synchronized void enrollInCourses(Map<String, Integer> courses)
+            throws DuplicateEnrollmentException, MaxCreditLimitExceededException {
+        int credits = checkEnrollments(courses);
+        // Interned only once the whole set is accepted, so a refused request adds no codes
+        int[] ids = new int[courses.size()];
+        int n = 0;
+        for (String code : courses.keySet()) {
+            ids[n++] = Symbols.COURSE_CODES.intern(code);
+        }
+        enrolledCourses = withCourses(enrolledCourses, ids);
+        totalCredits += credits;
+    }
+    
+    // Throws what enrollInCourses would for the set, without enrolling; returns its credits
+    public synchronized int checkEnrollments(Map<String, Integer> courses)
+            throws DuplicateEnrollmentException, MaxCreditLimitExceededException {
+        int credits = 0;
+        for (Map.Entry<String, Integer> course : courses.entrySet()) {
+            // idOf, not intern: a code never seen before cannot be a duplicate
+            if (isEnrolledIn(Symbols.COURSE_CODES.idOf(course.getKey()))) {
+                throw new DuplicateEnrollmentException("Already enrolled in " + course.getKey());
+            }
+            credits += course.getValue();
+        }
+        if (!canTakeCredits(credits)) {
+            throw new MaxCreditLimitExceededException("Cannot exceed " + MAX_CREDITS_PER_SEMESTER
+                + " credits per semester (" + totalCredits + " enrolled + " + credits + " requested)");
+        }
+        return credits;
+    }
+    
+    public synchronized boolean canTakeCredits(int credits) {
+        return totalCredits + credits <= MAX_CREDITS_PER_SEMESTER;
+    }
+    
+    public boolean isEnrolledIn(String courseCode) {
+        return isEnrolledIn(Symbols.COURSE_CODES.idOf(courseCode));
+    }
+    
+    public boolean isEnrolledIn(int courseId) {
+        return courseId != SymbolTable.NOT_FOUND && Arrays.binarySearch(enrolledCourses, courseId) >= 0;
+    }
+    
+    public synchronized void unenrollFromCourse(String courseCode, int credits) {
+        int id = Symbols.COURSE_CODES.idOf(courseCode);
+        int[] current = enrolledCourses;
+        int at = id == SymbolTable.NOT_FOUND ? -1 : Arrays.binarySearch(current, id);
+        if (at >= 0) {
+            int[] remaining = new int[current.length - 1];
+            System.arraycopy(current, 0, remaining, 0, at);
+            System.arraycopy(current, at + 1, remaining, at, remaining.length - at);
+            enrolledCourses = remaining.length == 0 ? NO_COURSES : remaining;
+            totalCredits -= credits;
+        }
+    }
+    
+    // Used when reloading saved records - the credit cap was enforced when they were first enrolled.
+    // Credits are whole numbers; a fractional total from an old file is rounded.
+    public synchronized void restoreEnrollments(List<String> courseCodes, double totalCredits) {
+        int[] ids = new int[courseCodes.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = Symbols.COURSE_CODES.intern(courseCodes.get(i));
+        }
+        this.enrolledCourses = withCourses(NO_COURSES, ids);
+        this.totalCredits = (int) Math.round(totalCredits);
+    }
+    
+    // A new sorted array holding current plus ids, without duplicates
+    private static int[] withCourses(int[] current, int[] ids) {
+        int[] merged = Arrays.copyOf(current, current.length + ids.length);
+        System.arraycopy(ids, 0, merged, current.length, ids.length);
+        Arrays.sort(merged);
+        int n = 0;
+        for (int i = 0; i < merged.length; i++) {
+            if (n == 0 || merged[n - 1] != merged[i]) merged[n++] = merged[i];
+        }
+        return n == 0 ? NO_COURSES : n == merged.length ? merged : Arrays.copyOf(merged, n);
+    }
+    
+    // Credit-weighted, O(1) - both transcripts keep the weighted grade-point sum as grades change
+    public synchronized double calculateGPA() {
+        return transcript.gpa();
+    }
+    
+    // A grade not tied to a course - weighs one credit
+    public void addGrade(Grade grade) {
+        addGrade(GradeEntry.unattributed(grade));
+    }
+    
+    public synchronized void addGrade(GradeEntry entry) {
+        transcript.add(entry);
+    }
+    
+    // Replaces the grade at the given position, keeping its course and term; returns the entry
+    // it replaced. Like the other grade changes, call it through StudentService so the
+    // indexes and mutation log see it.
+    public synchronized GradeEntry correctGrade(int index, Grade grade) {
+        return transcript.correct(index, grade);
+    }
+    
+    // Removes the grade at the given position; later grades move up one
+    public synchronized GradeEntry removeGrade(int index) {
+        return transcript.remove(index);
+    }
+    
+    // Copies the grades into target, which holds them from then on. StudentService moves a
+    // student's grades into its GradeStore when the student is added, and back into a
+    // transcript of the student's own when the store is cleared.
+    public synchronized void moveGradesTo(Transcript target) {
+        for (GradeEntry entry : transcript.entries()) {
+            target.add(entry);
+        }
+        transcript = target;
+    }
+    
+    public void detachGrades() {
+        moveGradesTo(new PackedTranscript());
+    }
+    
+    // Getters and setters
+    public String getRegNo() { return regNo; }
+    public String getDepartment() { return Symbols.DEPARTMENTS.valueOf(department); }
+    public int getDepartmentId() { return department; }
+    public StudentStatus getStatus() { return status; }
+    
+    // Read-only snapshot views - later changes to the student do not show through
+    
+    // Codes in ID order, i.e. the order the codes were first seen
+    public List<String> getEnrolledCourses() {
+        int[] ids = enrolledCourses;
+        return new AbstractList<String>() {
+            @Override public String get(int index) { return Symbols.COURSE_CODES.valueOf(ids[index]); }
+            @Override public int size() { return ids.length; }
+        };
+    }
+    public int[] getEnrolledCourseIds() { return enrolledCourses.clone(); }
+    public void forEachEnrolledCourseId(IntConsumer action) {
+        for (int id : enrolledCourses) action.accept(id);
+    }
+    public int getEnrolledCourseCount() { return enrolledCourses.length; }
+    public synchronized double getTotalCredits() { return totalCredits; }
+    public List<Grade> getGrades() {
+        List<GradeEntry> entries = getGradeEntries();
+        return new AbstractList<Grade>() {
+            @Override public Grade get(int index) { return entries.get(index).getGrade(); }
+            @Override public int size() { return entries.size(); }
+        };
+    }
+    public List<GradeEntry> getGradeEntries() { return transcript.entries(); }
+    public GradeEntry getLastGradeEntry() { return transcript.last(); }
+    public int getGradeCount() { return transcript.size(); }
+    public boolean hasGrades() { return transcript.size() != 0; }
+    
+    public void setDepartment(String department) { this.department = Symbols.DEPARTMENTS.intern(department); }
+    public void setStatus(StudentStatus status) { this.status = status; }
+    
+    @Override
+    public String toString() {
+        return String.format("Student[%s] %s (%s) - %s", regNo, fullName, email, status);
+    }
+}
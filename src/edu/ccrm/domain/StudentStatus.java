@@ -1,23 +1,23 @@
-package edu.ccrm.domain;
-
-public enum StudentStatus {
-    ACTIVE("Active"),
-    INACTIVE("Inactive"),
-    GRADUATED("Graduated"),
-    SUSPENDED("Suspended");
-    
-    private final String displayName;
-    
-    StudentStatus(String displayName) {
-        this.displayName = displayName;
-    }
-    
-    public String getDisplayName() {
-        return displayName;
-    }
-    
-    @Override
-    public String toString() {
-        return displayName;
-    }
-}
\ No newline at end of file
+package edu.ccrm.domain;
+
+public enum StudentStatus {
+    ACTIVE("Active"),
+    INACTIVE("Inactive"),
+    GRADUATED("Graduated"),
+    SUSPENDED("Suspended");
+    
+    private final String displayName;
+    
+    StudentStatus(String displayName) {
+        this.displayName = displayName;
+    }
+    
+    public String getDisplayName() {
+        return displayName;
+    }
+    
+    @Override
+    public String toString() {
+        return displayName;
+    }
+}
@@ -0,0 +1,14 @@
+package edu.ccrm.domain;
+
+import edu.ccrm.util.SymbolTable;
+
+// Process-wide symbol tables for values that repeat across many records. Domain objects
+// store the int IDs and hand out the String form from their getters.
+public final class Symbols {
+    public static final SymbolTable DEPARTMENTS = new SymbolTable("department");
+    public static final SymbolTable INSTRUCTORS = new SymbolTable("instructor");
+    public static final SymbolTable COURSE_CODES = new SymbolTable("course code");
+    
+    private Symbols() {
+    }
+}
@@ -0,0 +1,30 @@
+package edu.ccrm.domain;
+
+import java.util.List;
+
+// Where a student's grades are kept. A new Student holds its own (see PackedTranscript);
+// once it is added to a StudentService the grades move into the service's GradeStore,
+// which is from then on the only copy. Callers go through Student, under its monitor.
+public interface Transcript {
+    int MAX_CREDITS = 0xFF; // Credits per grade are stored as one unsigned byte
+    
+    // Read-only snapshot, in recorded order
+    List<GradeEntry> entries();
+    GradeEntry last(); // null if there are no grades
+    int size();
+    
+    // Credit-weighted GPA, 0.0 if there are no grades
+    double gpa();
+    
+    void add(GradeEntry entry);
+    // Replaces the grade at index, keeping its course and term; returns the entry it replaced
+    GradeEntry correct(int index, Grade grade);
+    // Later grades move up one; returns the removed entry
+    GradeEntry remove(int index);
+    
+    static void checkCredits(GradeEntry entry) {
+        if (entry.getCredits() < 0 || entry.getCredits() > MAX_CREDITS) {
+            throw new IllegalArgumentException("Grade credits out of range: " + entry.getCredits());
+        }
+    }
+}
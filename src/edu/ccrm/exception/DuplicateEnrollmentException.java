@@ -1,7 +1,7 @@
-package edu.ccrm.exception;
-
-public class DuplicateEnrollmentException extends Exception {
-    public DuplicateEnrollmentException(String message) {
-        super(message);
-    }
-}
\ No newline at end of file
+package edu.ccrm.exception;
+
+public class DuplicateEnrollmentException extends Exception {
+    public DuplicateEnrollmentException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,291 @@
+package edu.ccrm.io;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.CRC32C;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+// Single-file backup archive. Every entry is cut into fixed-size blocks that are
+// deflated independently on a thread pool, and each block carries the CRC32C of its
+// uncompressed bytes. Restores verify each block and inflate blocks concurrently.
+//
+// Layout: magic "CCRB" | u16 version | u16 reserved
+//         i32 manifest length | manifest (properties text, uncompressed)
+//         i32 entry count | entries: u16 name length, name, i64 size, i32 first block, i32 block count
+//         i32 block count | blocks: i32 compressed length, i32 uncompressed length, i32 CRC32C
+//         block data, in table order
+//
+// The manifest sits uncompressed at the front, so listing backups never touches block data.
+public class BackupArchive {
+    public static final String EXTENSION = ".ccrb";
+    private static final int MAGIC = 0x43435242; // "CCRB"
+    private static final int VERSION = 1;
+    private static final int BLOCK_BYTES = 1024 * 1024;
+    
+    private BackupArchive() {
+    }
+    
+    // Compresses the entries in parallel and writes the archive atomically. The manifest
+    // gains an archiveBytes property holding the final size of the archive file.
+    public static long write(Path file, Properties manifest, Map<String, byte[]> entries) throws IOException {
+        return write(file, manifest, entries, ForkJoinPool.commonPool());
+    }
+    
+    public static long write(Path file, Properties manifest, Map<String, byte[]> entries, Executor executor)
+            throws IOException {
+        List<String> names = new ArrayList<>(entries.keySet());
+        List<int[]> entryBlocks = new ArrayList<>(); // {first block, block count}
+        List<CompletableFuture<Block>> pending = new ArrayList<>();
+        for (String name : names) {
+            byte[] data = entries.get(name);
+            int first = pending.size();
+            for (int offset = 0; offset < data.length; offset += BLOCK_BYTES) {
+                int start = offset;
+                int length = Math.min(BLOCK_BYTES, data.length - offset);
+                pending.add(CompletableFuture.supplyAsync(() -> Block.compress(data, start, length), executor));
+            }
+            entryBlocks.add(new int[] { first, pending.size() - first });
+        }
+        
+        List<Block> blocks = new ArrayList<>(pending.size());
+        try {
+            for (CompletableFuture<Block> block : pending) {
+                blocks.add(block.join());
+            }
+        } catch (CompletionException e) {
+            throw new IOException("Block compression failed", e.getCause());
+        }
+        
+        long dataBytes = 0;
+        int tableBytes = 4 + 4 + blocks.size() * 12;
+        for (Block block : blocks) dataBytes += block.compressedLength;
+        for (String name : names) tableBytes += 2 + name.getBytes(StandardCharsets.UTF_8).length + 16;
+        
+        // The size includes the manifest that states it, so settle the digit count first
+        byte[] manifestBytes = null;
+        long archiveBytes = 0;
+        for (int attempt = 0; attempt < 4; attempt++) {
+            manifest.setProperty("archiveBytes", String.valueOf(archiveBytes));
+            manifestBytes = toBytes(manifest);
+            long size = 8 + 4 + manifestBytes.length + tableBytes + dataBytes;
+            if (size == archiveBytes) break;
+            archiveBytes = size;
+        }
+        
+        try (SnapshotWriter writer = new SnapshotWriter(file)) {
+            ByteBuffer out = writer.reserve(12);
+            out.putInt(MAGIC);
+            out.putShort((short) VERSION);
+            out.putShort((short) 0);
+            out.putInt(manifestBytes.length);
+            writer.write(manifestBytes);
+            
+            writer.reserve(4).putInt(names.size());
+            for (int i = 0; i < names.size(); i++) {
+                byte[] name = names.get(i).getBytes(StandardCharsets.UTF_8);
+                writer.reserve(2).putShort((short) name.length);
+                writer.write(name);
+                writer.reserve(16)
+                    .putLong(entries.get(names.get(i)).length)
+                    .putInt(entryBlocks.get(i)[0])
+                    .putInt(entryBlocks.get(i)[1]);
+            }
+            
+            writer.reserve(4).putInt(blocks.size());
+            for (Block block : blocks) {
+                writer.reserve(12).putInt(block.compressedLength).putInt(block.length).putInt(block.checksum);
+            }
+            for (Block block : blocks) {
+                writer.write(block.compressedBytes());
+            }
+            writer.commit();
+        }
+        return archiveBytes;
+    }
+    
+    // Reads only the uncompressed manifest at the front of the archive
+    public static Properties readManifest(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(12);
+            readFully(channel, header, 0);
+            checkHeader(header, file);
+            byte[] manifest = new byte[header.getInt()];
+            readFully(channel, ByteBuffer.wrap(manifest), 12);
+            return fromBytes(manifest);
+        }
+    }
+    
+    // Verifies and inflates every block, spreading the blocks over the thread pool
+    public static Map<String, byte[]> readEntries(Path file) throws IOException {
+        return readEntries(file, ForkJoinPool.commonPool());
+    }
+    
+    public static Map<String, byte[]> readEntries(Path file, Executor executor) throws IOException {
+        ByteBuffer in = ByteBuffer.wrap(Files.readAllBytes(file));
+        checkHeader(in, file);
+        int manifestLength = in.getInt();
+        in.position(in.position() + manifestLength); // Skip manifest
+        
+        int entryCount = in.getInt();
+        String[] names = new String[entryCount];
+        long[] sizes = new long[entryCount];
+        int[][] entryBlocks = new int[entryCount][];
+        for (int i = 0; i < entryCount; i++) {
+            byte[] name = new byte[Short.toUnsignedInt(in.getShort())];
+            in.get(name);
+            names[i] = new String(name, StandardCharsets.UTF_8);
+            sizes[i] = in.getLong();
+            entryBlocks[i] = new int[] { in.getInt(), in.getInt() };
+        }
+        
+        int blockCount = in.getInt();
+        int[][] table = new int[blockCount][];
+        for (int b = 0; b < blockCount; b++) {
+            table[b] = new int[] { in.getInt(), in.getInt(), in.getInt() };
+        }
+        int[] blockOffsets = new int[blockCount];
+        int offset = in.position();
+        for (int b = 0; b < blockCount; b++) {
+            blockOffsets[b] = offset;
+            offset += table[b][0];
+        }
+        
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+        List<CompletableFuture<Void>> pending = new ArrayList<>();
+        byte[] archive = in.array();
+        for (int i = 0; i < entryCount; i++) {
+            if (sizes[i] > Integer.MAX_VALUE) {
+                throw new IOException("Entry " + names[i] + " too large to restore in memory");
+            }
+            byte[] data = new byte[(int) sizes[i]];
+            entries.put(names[i], data);
+            
+            int target = 0;
+            for (int b = entryBlocks[i][0]; b < entryBlocks[i][0] + entryBlocks[i][1]; b++) {
+                int block = b;
+                int destination = target;
+                String name = names[i];
+                pending.add(CompletableFuture.runAsync(() -> Block.inflate(archive, blockOffsets[block],
+                    table[block][0], data, destination, table[block][1], table[block][2], name, block), executor));
+                target += table[b][1];
+            }
+        }
+        
+        try {
+            CompletableFuture.allOf(pending.toArray(CompletableFuture<?>[]::new)).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof IllegalStateException
+                ? new IOException(e.getCause().getMessage(), e.getCause())
+                : new IOException("Block decompression failed", e.getCause());
+        }
+        return entries;
+    }
+    
+    private static void checkHeader(ByteBuffer in, Path file) throws IOException {
+        if (in.remaining() < 12 || in.getInt() != MAGIC) {
+            throw new IOException("Not a CCRM backup archive: " + file);
+        }
+        int version = Short.toUnsignedInt(in.getShort());
+        if (version > VERSION) {
+            throw new IOException("Unsupported archive version " + version + " in " + file);
+        }
+        in.getShort();
+    }
+    
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of archive");
+            }
+        }
+        buffer.flip();
+    }
+    
+    private static byte[] toBytes(Properties manifest) throws IOException {
+        StringWriter text = new StringWriter();
+        manifest.store(text, "CCRM backup manifest");
+        return text.toString().getBytes(StandardCharsets.ISO_8859_1);
+    }
+    
+    private static Properties fromBytes(byte[] bytes) throws IOException {
+        Properties manifest = new Properties();
+        manifest.load(new StringReader(new String(bytes, StandardCharsets.ISO_8859_1)));
+        return manifest;
+    }
+    
+    // One independently deflated block
+    private static class Block {
+        private final byte[] compressed;
+        private final int compressedLength;
+        private final int length;
+        private final int checksum;
+        
+        private Block(byte[] compressed, int compressedLength, int length, int checksum) {
+            this.compressed = compressed;
+            this.compressedLength = compressedLength;
+            this.length = length;
+            this.checksum = checksum;
+        }
+        
+        byte[] compressedBytes() {
+            return compressed.length == compressedLength ? compressed : Arrays.copyOf(compressed, compressedLength);
+        }
+        
+        static Block compress(byte[] data, int offset, int length) {
+            CRC32C crc = new CRC32C();
+            crc.update(data, offset, length);
+            
+            Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+            try {
+                deflater.setInput(data, offset, length);
+                deflater.finish();
+                byte[] out = new byte[length + length / 8 + 64]; // Worst case for incompressible input
+                int written = 0;
+                while (!deflater.finished()) {
+                    if (written == out.length) out = Arrays.copyOf(out, out.length * 2);
+                    written += deflater.deflate(out, written, out.length - written);
+                }
+                return new Block(out, written, length, (int) crc.getValue());
+            } finally {
+                deflater.end();
+            }
+        }
+        
+        static void inflate(byte[] archive, int offset, int compressedLength, byte[] target, int targetOffset,
+                            int length, int checksum, String entry, int block) {
+            Inflater inflater = new Inflater(true);
+            try {
+                inflater.setInput(archive, offset, compressedLength);
+                int read = 0;
+                while (read < length && !inflater.finished()) {
+                    int n = inflater.inflate(target, targetOffset + read, length - read);
+                    if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) break;
+                    read += n;
+                }
+                CRC32C crc = new CRC32C();
+                crc.update(target, targetOffset, read);
+                if (read != length || (int) crc.getValue() != checksum) {
+                    throw new IllegalStateException("Corrupt block " + block + " in " + entry);
+                }
+            } catch (DataFormatException e) {
+                throw new IllegalStateException("Corrupt block " + block + " in " + entry, e);
+            } finally {
+                inflater.end();
+            }
+        }
+    }
+}
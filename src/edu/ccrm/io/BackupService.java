@@ -1,66 +1,261 @@
-package edu.ccrm.io;
-
-import java.io.IOException;
-import java.nio.file.*;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.util.stream.Stream;
-
-public class BackupService {
-    private final Path backupRoot;
-    
-    public BackupService(String backupPath) {
-        this.backupRoot = Paths.get(backupPath);
-        try {
-            Files.createDirectories(backupRoot);
-        } catch (IOException e) {
-            System.err.println("Failed to create backup directory: " + e.getMessage());
-        }
-    }
-    
-    public void createBackup() throws IOException {
-        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss"));
-        Path backupDir = backupRoot.resolve("backup_" + timestamp);
-        
-        Files.createDirectories(backupDir);
-        System.out.println("Created backup directory: " + backupDir);
-        
-        // Simulate copying files
-        Files.write(backupDir.resolve("students.csv"), "Sample student data".getBytes());
-        Files.write(backupDir.resolve("courses.csv"), "Sample course data".getBytes());
-        Files.write(backupDir.resolve("enrollments.csv"), "Sample enrollment data".getBytes());
-        
-        System.out.println("Backup completed successfully!");
-    }
-    
-    // Recursive method to calculate directory size
-    public long calculateDirectorySize(Path directory) throws IOException {
-        if (!Files.exists(directory)) return 0;
-        
-        try (Stream<Path> paths = Files.walk(directory)) {
-            return paths
-                .filter(Files::isRegularFile)
-                .mapToLong(path -> {
-                    try {
-                        return Files.size(path);
-                    } catch (IOException e) {
-                        return 0;
-                    }
-                })
-                .sum();
-        }
-    }
-    
-    // Recursive method to list files by depth
-    public void listFilesByDepth(Path directory, int maxDepth) throws IOException {
-        if (!Files.exists(directory)) return;
-        
-        try (Stream<Path> paths = Files.walk(directory, maxDepth)) {
-            paths.forEach(path -> {
-                int depth = directory.relativize(path).getNameCount() - 1;
-                String indent = "  ".repeat(Math.max(0, depth));
-                System.out.println(indent + path.getFileName());
-            });
-        }
-    }
-}
\ No newline at end of file
+package edu.ccrm.io;
+
+import edu.ccrm.domain.*;
+import edu.ccrm.service.CourseService;
+import edu.ccrm.service.MutationListener;
+import edu.ccrm.service.StudentService;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+// Incremental backups. The first backup of a session is a full copy; after that only
+// the students and courses changed since the previous backup are written, tracked as
+// dirty IDs through MutationListener events. Each backup is one BackupArchive file
+// whose uncompressed manifest header chains it to its parent, so any backup can be
+// restored by replaying its chain from the last full backup forward.
+public class BackupService implements MutationListener {
+    private static final String STUDENTS_ENTRY = "students.csv";
+    private static final String COURSES_ENTRY = "courses.csv";
+    private static final int MAX_CHAIN_LENGTH = 10; // Take a fresh full backup after this many increments
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss-SSS");
+    
+    private final Path backupRoot;
+    // Concurrent sets - events arrive from whichever thread made the change
+    private final Set<String> dirtyStudents = ConcurrentHashMap.newKeySet();
+    private final Set<String> dirtyCourses = ConcurrentHashMap.newKeySet();
+    // Dirty IDs are only complete relative to a backup taken in this session
+    private volatile Manifest lastBackup;
+    
+    // Restored record sets, ready to be bulk-loaded into the services
+    public static class RestoredData {
+        private final List<Student> students;
+        private final List<Course> courses;
+        
+        RestoredData(List<Student> students, List<Course> courses) {
+            this.students = students;
+            this.courses = courses;
+        }
+        
+        public List<Student> getStudents() { return students; }
+        public List<Course> getCourses() { return courses; }
+    }
+    
+    public BackupService(String backupPath) {
+        this.backupRoot = Paths.get(backupPath);
+        try {
+            Files.createDirectories(backupRoot);
+        } catch (IOException e) {
+            System.err.println("Failed to create backup directory: " + e.getMessage());
+        }
+    }
+    
+    public void createBackup(StudentService studentService, CourseService courseService) throws IOException {
+        Manifest previous = lastBackup;
+        Manifest parent = previous == null || previous.chainLength >= MAX_CHAIN_LENGTH ? null : previous;
+        
+        // Take the dirty marks before reading any record: a change made from here on marks
+        // its record again, so it reaches the next backup even if this one read it first
+        Set<String> studentIds = drain(dirtyStudents);
+        Set<String> courseIds = drain(dirtyCourses);
+        Manifest manifest;
+        try {
+            manifest = writeBackup(parent, studentIds, courseIds, studentService, courseService);
+        } catch (IOException | RuntimeException e) {
+            dirtyStudents.addAll(studentIds); // Nothing was backed up - the records stay dirty
+            dirtyCourses.addAll(courseIds);
+            throw e;
+        }
+        lastBackup = manifest;
+        
+        System.out.println("Backup completed successfully! (" + manifest.students + " students, "
+            + manifest.courses + " courses, " + manifest.bytes + " bytes compressed from " + manifest.rawBytes + ")");
+    }
+    
+    // A full backup if parent is null, else an increment on top of it
+    private Manifest writeBackup(Manifest parent, Set<String> studentIds, Set<String> courseIds,
+                                 StudentService studentService, CourseService courseService) throws IOException {
+        boolean full = parent == null;
+        Collection<Student> students = full ? studentService.findAll() : resolve(studentIds, studentService::findById);
+        Collection<Course> courses = full ? courseService.findAll() : resolve(courseIds, courseService::findById);
+        
+        String id = "backup_" + LocalDateTime.now().format(TIMESTAMP);
+        
+        // Enrollments and grades are carried in the student snapshot columns
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+        entries.put(STUDENTS_ENTRY, CsvExporter.encodeStudents(students));
+        entries.put(COURSES_ENTRY, CsvExporter.encodeCourses(courses));
+        
+        Manifest manifest = new Manifest();
+        manifest.id = id;
+        manifest.parent = full ? null : parent.id;
+        manifest.chainLength = full ? 0 : parent.chainLength + 1;
+        manifest.created = LocalDateTime.now().toString();
+        manifest.students = students.size();
+        manifest.courses = courses.size();
+        manifest.rawBytes = entries.get(STUDENTS_ENTRY).length + entries.get(COURSES_ENTRY).length;
+        
+        // Written to a temp file and renamed into place - a listed archive is always complete
+        Path archive = archivePath(id);
+        manifest.bytes = BackupArchive.write(archive, manifest.toProperties(), entries);
+        System.out.println("Created " + (full ? "full" : "incremental") + " backup archive: " + archive);
+        return manifest;
+    }
+    
+    // Empties a dirty set and returns what it held
+    private static Set<String> drain(Set<String> dirty) {
+        Set<String> taken = new HashSet<>();
+        for (Iterator<String> it = dirty.iterator(); it.hasNext(); ) {
+            taken.add(it.next());
+            it.remove();
+        }
+        return taken;
+    }
+    
+    private Path archivePath(String id) {
+        return backupRoot.resolve(id + BackupArchive.EXTENSION);
+    }
+    
+    private static <T> List<T> resolve(Set<String> ids, Function<String, T> lookup) {
+        List<T> records = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            T record = lookup.apply(id);
+            if (record != null) records.add(record);
+        }
+        return records;
+    }
+    
+    // Rebuilds the state captured by the given backup: its full base first, then each
+    // increment in order, later versions of a record replacing earlier ones. Every block
+    // is checksum-verified as it is inflated; a corrupt archive fails the whole restore.
+    public RestoredData restore(String backupId) throws IOException {
+        Deque<Manifest> chain = new ArrayDeque<>();
+        Manifest current = Manifest.read(archivePath(backupId));
+        chain.push(current);
+        while (current.parent != null) {
+            current = Manifest.read(archivePath(current.parent));
+            chain.push(current);
+        }
+        
+        Map<String, Student> students = new LinkedHashMap<>();
+        Map<String, Course> courses = new LinkedHashMap<>();
+        for (Manifest manifest : chain) {
+            Map<String, byte[]> entries = BackupArchive.readEntries(archivePath(manifest.id));
+            CsvImporter.streamCourses(entries.getOrDefault(COURSES_ENTRY, new byte[0]))
+                .forEach(c -> courses.put(c.getCode(), c));
+            CsvImporter.streamStudents(entries.getOrDefault(STUDENTS_ENTRY, new byte[0]))
+                .forEach(s -> students.put(s.getId(), s));
+        }
+        System.out.println("Restored " + backupId + " from a chain of " + chain.size() + " backup(s)");
+        return new RestoredData(new ArrayList<>(students.values()), new ArrayList<>(courses.values()));
+    }
+    
+    // Completed backups, oldest first
+    public List<String> listBackups() throws IOException {
+        List<String> ids = new ArrayList<>();
+        try (Stream<Path> files = Files.list(backupRoot)) {
+            files.map(file -> file.getFileName().toString())
+                .filter(name -> name.endsWith(BackupArchive.EXTENSION))
+                .map(name -> name.substring(0, name.length() - BackupArchive.EXTENSION.length()))
+                .sorted()
+                .forEach(ids::add);
+        }
+        return ids;
+    }
+    
+    public void printBackupChain() throws IOException {
+        for (String id : listBackups()) {
+            Manifest manifest = Manifest.read(archivePath(id));
+            System.out.printf("%s  %-11s %6d students %6d courses %10d bytes%s%n",
+                id, manifest.parent == null ? "FULL" : "INCREMENTAL", manifest.students, manifest.courses,
+                manifest.bytes, manifest.parent == null ? "" : "  <- " + manifest.parent);
+        }
+    }
+    
+    // Sum of the archive sizes recorded in each manifest header - no block data is read
+    public long getTotalBackupSize() throws IOException {
+        long total = 0;
+        for (String id : listBackups()) {
+            total += Manifest.read(archivePath(id)).bytes;
+        }
+        return total;
+    }
+    
+    // --- Dirty tracking ---
+    
+    @Override public void studentAdded(Student student) { dirtyStudents.add(student.getId()); }
+    @Override public void studentUpdated(Student student) { dirtyStudents.add(student.getId()); }
+    @Override public void statusChanged(Student student, StudentStatus previous) { dirtyStudents.add(student.getId()); }
+    @Override public void enrolled(Student student, String courseCode, int credits) { dirtyStudents.add(student.getId()); }
+    @Override public void unenrolled(Student student, String courseCode, int credits) { dirtyStudents.add(student.getId()); }
+    @Override public void gradeRecorded(Student student, GradeEntry entry) { dirtyStudents.add(student.getId()); }
+    @Override public void gradeCorrected(Student student, int index, GradeEntry previous) { dirtyStudents.add(student.getId()); }
+    @Override public void gradeRemoved(Student student, int index, GradeEntry removed) { dirtyStudents.add(student.getId()); }
+    @Override public void courseAdded(Course course) { dirtyCourses.add(course.getCode()); }
+    @Override public void courseUpdated(Course course, String previousInstructor) { dirtyCourses.add(course.getCode()); }
+    @Override public void courseDeactivated(Course course) { dirtyCourses.add(course.getCode()); }
+    
+    // Records vanished wholesale - an increment cannot express that, so the next backup is full
+    @Override public void studentsCleared() { lastBackup = null; }
+    @Override public void coursesCleared() { lastBackup = null; }
+    
+    // Recursive method to list files by depth
+    public void listFilesByDepth(Path directory, int maxDepth) throws IOException {
+        if (!Files.exists(directory)) return;
+        
+        try (Stream<Path> paths = Files.walk(directory, maxDepth)) {
+            paths.forEach(path -> {
+                int depth = directory.relativize(path).getNameCount() - 1;
+                String indent = "  ".repeat(Math.max(0, depth));
+                System.out.println(indent + path.getFileName());
+            });
+        }
+    }
+    
+    // Manifest header of one backup archive
+    private static class Manifest {
+        String id;
+        String parent;
+        int chainLength;
+        String created;
+        int students;
+        int courses;
+        long rawBytes;
+        long bytes; // Archive file size, filled in by BackupArchive
+        
+        Properties toProperties() {
+            Properties props = new Properties();
+            props.setProperty("id", id);
+            if (parent != null) props.setProperty("parent", parent);
+            props.setProperty("chainLength", String.valueOf(chainLength));
+            props.setProperty("created", created);
+            props.setProperty("students", String.valueOf(students));
+            props.setProperty("courses", String.valueOf(courses));
+            props.setProperty("rawBytes", String.valueOf(rawBytes));
+            return props;
+        }
+        
+        static Manifest read(Path archive) throws IOException {
+            if (!Files.exists(archive)) {
+                throw new NoSuchFileException(archive.toString(), null, "backup archive not found");
+            }
+            Properties props = BackupArchive.readManifest(archive);
+            
+            Manifest manifest = new Manifest();
+            manifest.id = props.getProperty("id");
+            manifest.parent = props.getProperty("parent");
+            manifest.chainLength = Integer.parseInt(props.getProperty("chainLength", "0"));
+            manifest.created = props.getProperty("created");
+            manifest.students = Integer.parseInt(props.getProperty("students", "0"));
+            manifest.courses = Integer.parseInt(props.getProperty("courses", "0"));
+            manifest.rawBytes = Long.parseLong(props.getProperty("rawBytes", "0"));
+            manifest.bytes = Long.parseLong(props.getProperty("archiveBytes", "0"));
+            return manifest;
+        }
+    }
+}
@@ -0,0 +1,353 @@
+package edu.ccrm.io;
+
+import edu.ccrm.domain.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.function.Predicate;
+
+// Compact, versioned binary alternative to the CSV snapshot files.
+//
+// File:   magic "CCRM" | u16 version | u8 kind | u8 reserved
+//         i32 dictionary size | dictionary strings
+//         i32 record count | records
+// Record: i32 body length | u8 flags | u8 tag | body
+//
+// Repeated strings (departments, instructors, course codes) are written once in the
+// dictionary and referenced by index. Enums are stored as ordinal bytes; lengths, counts
+// and dictionary indexes are varints, strings are a varint of length + 1 (0 for null)
+// plus UTF-8 bytes. The tag byte holds the StudentStatus or Semester ordinal, so readers
+// can filter and skip a record using only its fixed-width header.
+//
+// Student body: id, regNo, first name, last name, email, department, total credits,
+//               course count, courses, grade count, then per grade its ordinal and
+//               course index + 1 (0 = none), followed by term and credits if it has one
+// Course body:  code, title, credits, instructor, department, capacity
+public class BinaryCodec {
+    public static final int MAGIC = 0x4343524D; // "CCRM"
+    public static final int VERSION = 1;
+    public static final int RECORD_HEADER_BYTES = 6;
+    
+    private static final byte KIND_STUDENTS = 1;
+    private static final byte KIND_COURSES = 2;
+    private static final byte FLAG_ACTIVE = 1;
+    
+    private BinaryCodec() {
+    }
+    
+    public static int writeStudents(Path file, Collection<Student> students) throws IOException {
+        Dictionary dictionary = new Dictionary();
+        for (Student student : students) {
+            dictionary.add(student.getDepartment());
+            for (String code : student.getEnrolledCourses()) dictionary.add(code);
+            for (GradeEntry entry : student.getGradeEntries()) {
+                if (entry.isAttributed()) dictionary.add(entry.getCourseCode());
+            }
+        }
+        
+        try (SnapshotWriter writer = new SnapshotWriter(file)) {
+            writeFileHeader(writer, KIND_STUDENTS, dictionary, students.size());
+            RecordBuffer body = new RecordBuffer();
+            for (Student student : students) {
+                body.clear();
+                body.putString(student.getId());
+                body.putString(student.getRegNo());
+                body.putString(student.getFullName().getFirstName());
+                body.putString(student.getFullName().getLastName());
+                body.putString(student.getEmail());
+                body.putVarInt(dictionary.indexOf(student.getDepartment()));
+                body.putVarInt((int) Math.round(student.getTotalCredits())); // Course credits are whole numbers
+                
+                List<String> courses = student.getEnrolledCourses();
+                body.putVarInt(courses.size());
+                for (String code : courses) body.putVarInt(dictionary.indexOf(code));
+                
+                List<GradeEntry> grades = student.getGradeEntries();
+                body.putVarInt(grades.size());
+                for (GradeEntry entry : grades) {
+                    body.putByte(entry.getGrade().ordinal());
+                    if (!entry.isAttributed()) {
+                        body.putVarInt(0);
+                        continue;
+                    }
+                    body.putVarInt(dictionary.indexOf(entry.getCourseCode()) + 1);
+                    body.putByte(entry.getSemester().ordinal());
+                    body.putVarInt(entry.getCredits());
+                }
+                
+                writeRecord(writer, (byte) 0, (byte) student.getStatus().ordinal(), body);
+            }
+            writer.commit();
+        }
+        return students.size();
+    }
+    
+    public static int writeCourses(Path file, Collection<Course> courses) throws IOException {
+        Dictionary dictionary = new Dictionary();
+        for (Course course : courses) {
+            dictionary.add(course.getCode());
+            dictionary.add(course.getInstructor());
+            dictionary.add(course.getDepartment());
+        }
+        
+        try (SnapshotWriter writer = new SnapshotWriter(file)) {
+            writeFileHeader(writer, KIND_COURSES, dictionary, courses.size());
+            RecordBuffer body = new RecordBuffer();
+            for (Course course : courses) {
+                body.clear();
+                body.putVarInt(dictionary.indexOf(course.getCode()));
+                body.putString(course.getTitle());
+                body.putVarInt(course.getCredits());
+                body.putVarInt(dictionary.indexOf(course.getInstructor()));
+                body.putVarInt(dictionary.indexOf(course.getDepartment()));
+                body.putVarInt(course.getCapacity());
+                
+                byte flags = course.isActive() ? FLAG_ACTIVE : 0;
+                writeRecord(writer, flags, (byte) course.getSemester().ordinal(), body);
+            }
+            writer.commit();
+        }
+        return courses.size();
+    }
+    
+    public static List<Student> readStudents(Path file) throws IOException {
+        return readStudents(file, status -> true);
+    }
+    
+    // Records whose status is rejected are skipped by their header alone, without decoding the body
+    public static List<Student> readStudents(Path file, Predicate<StudentStatus> statusFilter) throws IOException {
+        ByteBuffer in = readFully(file);
+        String[] dictionary = readFileHeader(in, KIND_STUDENTS, file);
+        StudentStatus[] statuses = StudentStatus.values();
+        Grade[] gradeValues = Grade.values();
+        Semester[] semesters = Semester.values();
+        
+        int count = in.getInt();
+        List<Student> students = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int length = in.getInt();
+            in.get(); // Flags - unused for students
+            StudentStatus status = statuses[in.get()];
+            if (!statusFilter.test(status)) {
+                in.position(in.position() + length);
+                continue;
+            }
+            int end = in.position() + length;
+            
+            String id = getString(in);
+            String regNo = getString(in);
+            Name name = new Name(getString(in), getString(in));
+            Student student = new Student(id, name, getString(in), regNo);
+            student.setDepartment(dictionary[getVarInt(in)]);
+            student.setStatus(status);
+            int totalCredits = getVarInt(in);
+            
+            int courseCount = getVarInt(in);
+            List<String> courses = new ArrayList<>(courseCount);
+            for (int c = 0; c < courseCount; c++) courses.add(dictionary[getVarInt(in)]);
+            student.restoreEnrollments(courses, totalCredits);
+            
+            int gradeCount = getVarInt(in);
+            for (int g = 0; g < gradeCount; g++) {
+                Grade grade = gradeValues[in.get()];
+                int course = getVarInt(in);
+                student.addGrade(course == 0
+                    ? GradeEntry.unattributed(grade)
+                    : new GradeEntry(grade, dictionary[course - 1], semesters[in.get()], getVarInt(in)));
+            }
+            checkRecordEnd(in, end, file);
+            
+            students.add(student);
+        }
+        return students;
+    }
+    
+    public static List<Course> readCourses(Path file) throws IOException {
+        ByteBuffer in = readFully(file);
+        String[] dictionary = readFileHeader(in, KIND_COURSES, file);
+        Semester[] semesters = Semester.values();
+        
+        int count = in.getInt();
+        List<Course> courses = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int length = in.getInt();
+            byte flags = in.get();
+            Semester semester = semesters[in.get()];
+            int end = in.position() + length;
+            
+            String code = dictionary[getVarInt(in)];
+            String title = getString(in);
+            int credits = getVarInt(in);
+            String instructor = dictionary[getVarInt(in)];
+            String department = dictionary[getVarInt(in)];
+            int capacity = getVarInt(in);
+            checkRecordEnd(in, end, file);
+            courses.add(new Course.Builder(code, title, credits)
+                    .instructor(instructor)
+                    .department(department)
+                    .semester(semester)
+                    .active((flags & FLAG_ACTIVE) != 0)
+                    .capacity(capacity)
+                    .build());
+        }
+        return courses;
+    }
+    
+    private static void writeFileHeader(SnapshotWriter writer, byte kind, Dictionary dictionary, int recordCount)
+            throws IOException {
+        ByteBuffer out = writer.reserve(12);
+        out.putInt(MAGIC);
+        out.putShort((short) VERSION);
+        out.put(kind);
+        out.put((byte) 0);
+        out.putInt(dictionary.size());
+        
+        RecordBuffer entry = new RecordBuffer();
+        for (String value : dictionary.values()) {
+            entry.putString(value);
+        }
+        writer.write(Arrays.copyOf(entry.bytes(), entry.length()));
+        writer.reserve(4).putInt(recordCount);
+    }
+    
+    private static void writeRecord(SnapshotWriter writer, byte flags, byte tag, RecordBuffer body)
+            throws IOException {
+        ByteBuffer out = writer.reserve(RECORD_HEADER_BYTES + body.length());
+        out.putInt(body.length());
+        out.put(flags);
+        out.put(tag);
+        out.put(body.bytes(), 0, body.length());
+    }
+    
+    private static String[] readFileHeader(ByteBuffer in, byte expectedKind, Path file) throws IOException {
+        if (in.remaining() < 12 || in.getInt() != MAGIC) {
+            throw new IOException("Not a CCRM binary snapshot: " + file);
+        }
+        int version = Short.toUnsignedInt(in.getShort());
+        if (version != VERSION) {
+            throw new IOException("Unsupported snapshot version " + version + " in " + file);
+        }
+        byte kind = in.get();
+        if (kind != expectedKind) {
+            throw new IOException("Unexpected record kind " + kind + " in " + file);
+        }
+        in.get();
+        
+        String[] dictionary = new String[in.getInt()];
+        for (int i = 0; i < dictionary.length; i++) {
+            dictionary[i] = getString(in);
+        }
+        return dictionary;
+    }
+    
+    // A body that decodes short of or past its length is corrupt; fail rather than misread the rest
+    private static void checkRecordEnd(ByteBuffer in, int end, Path file) throws IOException {
+        if (in.position() != end) {
+            throw new IOException("Corrupt record in " + file + " at byte " + in.position());
+        }
+    }
+    
+    // One bulk read into a heap array, so strings decode straight out of it without per-field copies
+    private static ByteBuffer readFully(Path file) throws IOException {
+        return ByteBuffer.wrap(Files.readAllBytes(file));
+    }
+    
+    private static String getString(ByteBuffer in) {
+        int length = getVarInt(in) - 1;
+        if (length < 0) {
+            return null;
+        }
+        int offset = in.position();
+        in.position(offset + length);
+        return new String(in.array(), offset, length, StandardCharsets.UTF_8);
+    }
+    
+    // Unsigned LEB128: 7 bits per byte, high bit set on every byte but the last
+    private static int getVarInt(ByteBuffer in) {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = in.get();
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+    
+    // Insertion-ordered string table; index = position in the file
+    private static class Dictionary {
+        private final Map<String, Integer> indexes = new LinkedHashMap<>();
+        
+        void add(String value) {
+            indexes.putIfAbsent(value, indexes.size());
+        }
+        
+        int indexOf(String value) {
+            return indexes.get(value);
+        }
+        
+        int size() {
+            return indexes.size();
+        }
+        
+        Set<String> values() {
+            return indexes.keySet();
+        }
+    }
+    
+    // Reusable scratch buffer for one record body, so the length can be written up front
+    private static class RecordBuffer {
+        private ByteBuffer buffer = ByteBuffer.allocate(256);
+        
+        void clear() {
+            buffer.clear();
+        }
+        
+        int length() {
+            return buffer.position();
+        }
+        
+        byte[] bytes() {
+            return buffer.array();
+        }
+        
+        void putString(String value) {
+            if (value == null) {
+                putVarInt(0);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            putVarInt(bytes.length + 1);
+            ensure(bytes.length);
+            buffer.put(bytes);
+        }
+        
+        void putVarInt(int value) {
+            ensure(5);
+            while ((value & ~0x7F) != 0) {
+                buffer.put((byte) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            buffer.put((byte) value);
+        }
+        
+        void putByte(int value) {
+            ensure(1);
+            buffer.put((byte) value);
+        }
+        
+        private void ensure(int bytes) {
+            if (buffer.remaining() < bytes) {
+                ByteBuffer grown = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + bytes));
+                buffer.flip();
+                grown.put(buffer);
+                buffer = grown;
+            }
+        }
+    }
+}
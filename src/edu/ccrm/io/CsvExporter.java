@@ -0,0 +1,139 @@
+package edu.ccrm.io;
+
+import edu.ccrm.domain.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Writes students and courses in the same CSV layout CsvImporter reads. The extra
+// snapshot columns come after the interchange columns, so the files stay compatible.
+// Values are quoted RFC 4180 style where needed, so commas and quotes in names,
+// emails and titles survive a round trip; null is written as an empty field. Inside the
+// list columns each element is escaped with a backslash before ';', ':' and a backslash, so a
+// course code holding a separator reads back whole.
+public class CsvExporter {
+    public static final String STUDENT_SNAPSHOT_HEADER =
+        CsvImporter.STUDENT_HEADER + ",id,total_credits,enrolled_courses,grades";
+    public static final String COURSE_SNAPSHOT_HEADER = CsvImporter.COURSE_HEADER + ",active,capacity";
+    
+    // Separator for list values inside a single column
+    static final String LIST_SEPARATOR = ";";
+    // Separates grade:course:semester:credits inside one grades-list value
+    static final String GRADE_FIELD_SEPARATOR = ":";
+    static final char ESCAPE = '\\';
+    
+    private CsvExporter() {
+    }
+    
+    public static int writeStudents(Path file, Iterable<Student> students) throws IOException {
+        return write(file, STUDENT_SNAPSHOT_HEADER, students, CsvExporter::formatStudent);
+    }
+    
+    public static int writeCourses(Path file, Iterable<Course> courses) throws IOException {
+        return write(file, COURSE_SNAPSHOT_HEADER, courses, CsvExporter::formatCourse);
+    }
+    
+    // In-memory encodings of the same files, for callers that package them (backup archives)
+    public static byte[] encodeStudents(Iterable<Student> students) {
+        return encode(STUDENT_SNAPSHOT_HEADER, students, CsvExporter::formatStudent);
+    }
+    
+    public static byte[] encodeCourses(Iterable<Course> courses) {
+        return encode(COURSE_SNAPSHOT_HEADER, courses, CsvExporter::formatCourse);
+    }
+    
+    private static <T> byte[] encode(String header, Iterable<T> records, Function<T, String> formatter) {
+        StringBuilder text = new StringBuilder(header).append('\n');
+        for (T record : records) {
+            text.append(formatter.apply(record)).append('\n');
+        }
+        return text.toString().getBytes(StandardCharsets.UTF_8);
+    }
+    
+    private static <T> int write(Path file, String header, Iterable<T> records, Function<T, String> formatter)
+            throws IOException {
+        int count = 0;
+        try (SnapshotWriter writer = new SnapshotWriter(file)) {
+            writer.writeLine(header);
+            for (T record : records) {
+                writer.writeLine(formatter.apply(record));
+                count++;
+            }
+            writer.commit();
+        }
+        return count;
+    }
+    
+    public static String formatStudent(Student s) {
+        List<GradeEntry> grades = s.getGradeEntries();
+        return joinFields(
+            s.getRegNo(),
+            s.getFullName().getFullName(),
+            s.getEmail(),
+            s.getDepartment(),
+            s.getStatus().name(),
+            s.getId(),
+            String.valueOf(s.getTotalCredits()),
+            s.getEnrolledCourses().stream().map(CsvExporter::escape).collect(Collectors.joining(LIST_SEPARATOR)),
+            grades.stream().map(CsvExporter::formatGrade).collect(Collectors.joining(LIST_SEPARATOR)));
+    }
+    
+    // "A" for a grade not tied to a course, otherwise "A:CS101:FALL:3"
+    static String formatGrade(GradeEntry entry) {
+        if (!entry.isAttributed()) {
+            return entry.getGrade().name();
+        }
+        return String.join(GRADE_FIELD_SEPARATOR, entry.getGrade().name(), escape(entry.getCourseCode()),
+            entry.getSemester().name(), String.valueOf(entry.getCredits()));
+    }
+    
+    public static String formatCourse(Course c) {
+        return joinFields(
+            c.getCode(),
+            c.getTitle(),
+            String.valueOf(c.getCredits()),
+            c.getInstructor(),
+            c.getDepartment(),
+            c.getSemester().name(),
+            String.valueOf(c.isActive()),
+            String.valueOf(c.getCapacity()));
+    }
+    
+    private static String joinFields(String... values) {
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) line.append(',');
+            line.append(quote(values[i]));
+        }
+        return line.toString();
+    }
+    
+    // One list element, with the list and grade separators and the escape itself escaped
+    static String escape(String element) {
+        StringBuilder escaped = new StringBuilder(element.length());
+        for (int i = 0; i < element.length(); i++) {
+            char c = element.charAt(i);
+            if (c == ESCAPE || c == LIST_SEPARATOR.charAt(0) || c == GRADE_FIELD_SEPARATOR.charAt(0)) {
+                escaped.append(ESCAPE);
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+    
+    // A value with a comma, quote or line break is wrapped in quotes, embedded quotes doubled
+    static String quote(String value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value;
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,288 @@
+package edu.ccrm.io;
+
+import edu.ccrm.domain.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+// Reads the students.csv / courses.csv formats record by record. Quoted values
+// (RFC 4180, as CsvExporter writes them) may hold commas, doubled quotes and line breaks.
+// An empty optional field (email, department, title, instructor) reads as null.
+public class CsvImporter {
+    public static final String STUDENT_HEADER = "reg_no,name,email,department,status";
+    public static final String COURSE_HEADER = "code,title,credits,instructor,department,semester";
+    public static final String SCHEDULE_HEADER = "student_id,course_codes";
+    
+    private CsvImporter() {
+    }
+    
+    // Lazy stream backed by a NIO reader - rows are parsed as they are consumed,
+    // so the caller must close the stream (try-with-resources)
+    public static Stream<Student> streamStudents(Path file) throws IOException {
+        return rows(file).map(CsvImporter::parseStudent).filter(Objects::nonNull);
+    }
+    
+    public static Stream<Course> streamCourses(Path file) throws IOException {
+        return rows(file).map(CsvImporter::parseCourse).filter(Objects::nonNull);
+    }
+    
+    static <T> Stream<T> stream(Path file, Function<String, T> parser) throws IOException {
+        return rows(file).map(parser).filter(Objects::nonNull);
+    }
+    
+    // Same formats held in memory, e.g. an entry inflated from a backup archive
+    public static Stream<Student> streamStudents(byte[] csv) {
+        return rows(csv).map(CsvImporter::parseStudent).filter(Objects::nonNull);
+    }
+    
+    public static Stream<Course> streamCourses(byte[] csv) {
+        return rows(csv).map(CsvImporter::parseCourse).filter(Objects::nonNull);
+    }
+    
+    // student_id,course_codes - codes separated by ';'. Rows for the same student are combined.
+    public static Map<String, List<String>> readSchedules(Path file) throws IOException {
+        Map<String, List<String>> schedules = new LinkedHashMap<>();
+        try (Stream<String> rows = rows(file)) {
+            rows.forEach(line -> {
+                String[] fields = splitFields(line);
+                if (fields.length < 2 || fields[0].isBlank()) {
+                    System.err.println("Skipping malformed schedule row: " + line);
+                    return;
+                }
+                schedules.computeIfAbsent(fields[0].trim(), id -> new ArrayList<>()).addAll(splitList(fields[1]));
+            });
+        }
+        return schedules;
+    }
+    
+    private static Stream<String> rows(Path file) throws IOException {
+        return records(Files.newBufferedReader(file, StandardCharsets.UTF_8))
+                .skip(1) // Header row
+                .filter(line -> !line.isBlank());
+    }
+    
+    private static Stream<String> rows(byte[] csv) {
+        return records(new BufferedReader(new StringReader(new String(csv, StandardCharsets.UTF_8))))
+                .skip(1)
+                .filter(line -> !line.isBlank());
+    }
+    
+    // One element per record: a line that ends inside a quoted value continues on the next.
+    // Closing the stream closes the reader.
+    private static Stream<String> records(BufferedReader reader) {
+        Iterator<String> iterator = new Iterator<String>() {
+            private String next = read();
+            
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+            
+            @Override
+            public String next() {
+                if (next == null) throw new NoSuchElementException();
+                String record = next;
+                next = read();
+                return record;
+            }
+            
+            private String read() {
+                try {
+                    String line = reader.readLine();
+                    if (line == null || quoteCount(line) % 2 == 0) return line;
+                    StringBuilder record = new StringBuilder(line);
+                    int quotes = quoteCount(line);
+                    String more;
+                    while (quotes % 2 != 0 && (more = reader.readLine()) != null) {
+                        record.append('\n').append(more);
+                        quotes += quoteCount(more);
+                    }
+                    return record.toString();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(() -> {
+                    try {
+                        reader.close();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+    
+    // Doubled quotes count twice, so an odd total means a quoted value is still open
+    private static int quoteCount(String line) {
+        int count = 0;
+        for (int i = 0; i < line.length(); i++) {
+            if (line.charAt(i) == '"') count++;
+        }
+        return count;
+    }
+    
+    // Splits a record on the commas outside quotes and unquotes each field ("" is a literal
+    // quote). Empty trailing fields are kept, like split(",", -1).
+    static String[] splitFields(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields.toArray(new String[0]);
+    }
+    
+    // reg_no,name,email,department,status - the registration number doubles as the student ID
+    // unless the snapshot columns (id,total_credits,enrolled_courses,grades) are present
+    public static Student parseStudent(String line) {
+        String[] fields = splitFields(line);
+        if (fields.length < 5) {
+            System.err.println("Skipping malformed student row: " + line);
+            return null;
+        }
+        
+        try {
+            String regNo = fields[0].trim();
+            String id = fields.length > 5 && !fields[5].isBlank() ? fields[5].trim() : regNo;
+            Student student = new Student(id, parseName(fields[1].trim()), optional(fields[2]), regNo);
+            student.setDepartment(optional(fields[3]));
+            student.setStatus(StudentStatus.valueOf(fields[4].trim().toUpperCase()));
+            
+            if (fields.length >= 9) {
+                student.restoreEnrollments(splitList(fields[7]), Double.parseDouble(fields[6].trim()));
+                for (String grade : splitEscaped(fields[8], CsvExporter.LIST_SEPARATOR.charAt(0))) {
+                    if (!grade.isBlank()) student.addGrade(parseGrade(grade));
+                }
+            }
+            return student;
+        } catch (IllegalArgumentException e) {
+            System.err.println("Skipping student row (" + e.getMessage() + "): " + line);
+            return null;
+        }
+    }
+    
+    // code,title,credits,instructor,department,semester[,active[,capacity]]
+    public static Course parseCourse(String line) {
+        String[] fields = splitFields(line);
+        if (fields.length < 6) {
+            System.err.println("Skipping malformed course row: " + line);
+            return null;
+        }
+        
+        try {
+            return new Course.Builder(fields[0].trim(), optional(fields[1]), Integer.parseInt(fields[2].trim()))
+                    .instructor(optional(fields[3]))
+                    .department(optional(fields[4]))
+                    .semester(Semester.valueOf(fields[5].trim().toUpperCase()))
+                    .active(fields.length < 7 || !fields[6].trim().equalsIgnoreCase("false"))
+                    .capacity(fields.length < 8 || fields[7].isBlank() ? Course.UNLIMITED : Integer.parseInt(fields[7].trim()))
+                    .build();
+        } catch (IllegalArgumentException e) {
+            System.err.println("Skipping course row (" + e.getMessage() + "): " + line);
+            return null;
+        }
+    }
+    
+    // grade[:course:semester:credits], still escaped - see CsvExporter.formatGrade
+    static GradeEntry parseGrade(String value) {
+        List<String> parts = splitEscaped(value, CsvExporter.GRADE_FIELD_SEPARATOR.charAt(0));
+        Grade grade = Grade.valueOf(parts.get(0).trim());
+        if (parts.size() < 4) {
+            return GradeEntry.unattributed(grade);
+        }
+        return new GradeEntry(grade, unescape(parts.get(1).trim()), Semester.valueOf(parts.get(2).trim()),
+            Integer.parseInt(parts.get(3).trim()));
+    }
+    
+    private static String optional(String field) {
+        return field.isBlank() ? null : field.trim();
+    }
+    
+    // Elements of a ';' list column, unescaped
+    private static List<String> splitList(String column) {
+        List<String> values = new ArrayList<>();
+        for (String value : splitEscaped(column, CsvExporter.LIST_SEPARATOR.charAt(0))) {
+            if (!value.isBlank()) values.add(unescape(value.trim()));
+        }
+        return values;
+    }
+    
+    // Splits on the separators not preceded by the escape character, leaving the escapes in
+    // place so a part can be split again on an inner separator
+    private static List<String> splitEscaped(String value, char separator) {
+        List<String> parts = new ArrayList<>();
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == CsvExporter.ESCAPE) {
+                i++;
+            } else if (c == separator) {
+                parts.add(value.substring(start, i));
+                start = i + 1;
+            }
+        }
+        parts.add(value.substring(start));
+        return parts;
+    }
+    
+    private static String unescape(String value) {
+        if (value.indexOf(CsvExporter.ESCAPE) < 0) {
+            return value;
+        }
+        StringBuilder text = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == CsvExporter.ESCAPE && i + 1 < value.length()) {
+                c = value.charAt(++i);
+            }
+            text.append(c);
+        }
+        return text.toString();
+    }
+    
+    // "Vani Priya" -> first name up to the first space, the rest is the last name
+    private static Name parseName(String name) {
+        int space = name.indexOf(' ');
+        if (space < 0) {
+            return new Name(name, "");
+        }
+        return new Name(name.substring(0, space), name.substring(space + 1).trim());
+    }
+}
@@ -0,0 +1,556 @@
+package edu.ccrm.io;
+
+import edu.ccrm.domain.*;
+import edu.ccrm.service.Page;
+import edu.ccrm.service.Searchable;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+// Snapshot format that is memory-mapped and queried in place. Opening a table maps the
+// file and reads the trailer and dictionary - nothing else - and records become Student /
+// Course objects only when asked for, so a reader that only looks records up skips the
+// parse pass. StudentService / CourseService.openMapped serve their Searchable reads from
+// an open table that way and load it on first need; loadFrom decodes the whole table up
+// front, since the indexes need every record - cheaper than CSV (fixed offsets, no text
+// parsing) but still O(n).
+//
+// File:    magic "CCRT" | u16 version | u8 kind | u8 reserved
+//          data area | slot table | dictionary | trailer
+// Data:    per record, its ID string first, then its other strings and lists
+// Slots:   one fixed-width slot per record with every scalar field at a fixed offset
+//          (the *_SLOT constants), ending with the offset of the record's data
+// Dict:    i32 count | values (departments, instructors, course codes)
+// Trailer: i32 record count | i32 slot bytes | i32 slot table offset
+//          | i32 dictionary offset | i32 magic
+// Strings are a u16 length (0xFFFF for null) plus UTF-8 bytes; numbers are big-endian.
+//
+// Records are written in ID order (UTF-8 byte order), so the slot table doubles as the
+// ID index: findById is a binary search over slots comparing ID bytes in the mapping.
+// The trailer is written last, which lets the writer build the dictionary and the slot
+// table in the same single pass that writes the data. Offsets are 32-bit, so a file is
+// capped at 2 GB.
+public final class MappedSnapshot {
+    public static final int MAGIC = 0x43435254; // "CCRT"
+    public static final int VERSION = 1;
+    
+    private static final int HEADER_BYTES = 8;
+    private static final int TRAILER_BYTES = 20;
+    private static final byte KIND_STUDENTS = 1;
+    private static final byte KIND_COURSES = 2;
+    private static final int NULL_STRING = 0xFFFF;
+    private static final int NO_ENTRY = -1;
+    
+    // Student slot
+    private static final int STUDENT_STATUS_SLOT = 0;      // u8 StudentStatus ordinal
+    private static final int STUDENT_DEPARTMENT_SLOT = 4;  // i32 dictionary index
+    private static final int STUDENT_CREDITS_SLOT = 8;     // i32 enrolled credits
+    private static final int STUDENT_COURSES_SLOT = 12;    // i32 enrolled course count
+    private static final int STUDENT_GRADES_SLOT = 16;     // i32 grade count
+    private static final int STUDENT_GPA_SLOT = 20;        // f64 credit-weighted GPA
+    private static final int STUDENT_DATA_SLOT = 28;       // i32 data offset
+    private static final int STUDENT_SLOT_BYTES = 32;
+    // Student data: id, regNo, first name, last name, email, then i32 course dictionary
+    // index per enrollment, then GRADE_BYTES per grade: grade ordinal, semester ordinal
+    // (-1 for none), credits (unsigned), i32 course dictionary index (-1 for none)
+    private static final int GRADE_BYTES = 7;
+    
+    // Course slot
+    private static final int COURSE_FLAGS_SLOT = 0;        // u8
+    private static final int COURSE_SEMESTER_SLOT = 1;     // u8 Semester ordinal
+    private static final int COURSE_CREDITS_SLOT = 4;      // i32
+    private static final int COURSE_CAPACITY_SLOT = 8;     // i32
+    private static final int COURSE_INSTRUCTOR_SLOT = 12;  // i32 dictionary index
+    private static final int COURSE_DEPARTMENT_SLOT = 16;  // i32 dictionary index
+    private static final int COURSE_DATA_SLOT = 20;        // i32 data offset
+    private static final int COURSE_SLOT_BYTES = 24;
+    // Course data: code, title
+    private static final byte FLAG_ACTIVE = 1;
+    
+    private static final StudentStatus[] STATUSES = StudentStatus.values();
+    private static final Semester[] SEMESTERS = Semester.values();
+    private static final Grade[] GRADES = Grade.values();
+    
+    private MappedSnapshot() {
+    }
+    
+    // --- Writing ---
+    
+    public static int writeStudents(Path file, Collection<Student> students) throws IOException {
+        List<Keyed<Student>> records = sortById(students, Student::getId);
+        try (TableWriter out = new TableWriter(file, KIND_STUDENTS, records.size(), STUDENT_SLOT_BYTES)) {
+            for (Keyed<Student> record : records) {
+                Student student = record.value;
+                // Each list is read once - the views are snapshots - so counts and contents agree
+                List<String> courses = student.getEnrolledCourses();
+                List<GradeEntry> grades = student.getGradeEntries();
+                
+                ByteBuffer slot = out.nextSlot();
+                slot.put(STUDENT_STATUS_SLOT, (byte) student.getStatus().ordinal());
+                slot.putInt(STUDENT_DEPARTMENT_SLOT, out.dictionaryIndex(student.getDepartment()));
+                slot.putInt(STUDENT_CREDITS_SLOT, (int) Math.round(student.getTotalCredits()));
+                slot.putInt(STUDENT_COURSES_SLOT, courses.size());
+                slot.putInt(STUDENT_GRADES_SLOT, grades.size());
+                slot.putDouble(STUDENT_GPA_SLOT, gpa(grades));
+                slot.putInt(STUDENT_DATA_SLOT, out.dataOffset());
+                
+                out.putString(record.id);
+                out.putString(student.getRegNo());
+                out.putString(student.getFullName().getFirstName());
+                out.putString(student.getFullName().getLastName());
+                out.putString(student.getEmail());
+                for (String code : courses) {
+                    out.reserve(4).putInt(out.dictionaryIndex(code));
+                }
+                for (GradeEntry entry : grades) {
+                    ByteBuffer data = out.reserve(GRADE_BYTES);
+                    data.put((byte) entry.getGrade().ordinal());
+                    data.put((byte) (entry.getSemester() == null ? NO_ENTRY : entry.getSemester().ordinal()));
+                    data.put((byte) entry.getCredits());
+                    data.putInt(entry.isAttributed() ? out.dictionaryIndex(entry.getCourseCode()) : NO_ENTRY);
+                }
+            }
+            out.commit();
+        }
+        return records.size();
+    }
+    
+    public static int writeCourses(Path file, Collection<Course> courses) throws IOException {
+        List<Keyed<Course>> records = sortById(courses, Course::getCode);
+        try (TableWriter out = new TableWriter(file, KIND_COURSES, records.size(), COURSE_SLOT_BYTES)) {
+            for (Keyed<Course> record : records) {
+                Course course = record.value;
+                ByteBuffer slot = out.nextSlot();
+                slot.put(COURSE_FLAGS_SLOT, course.isActive() ? FLAG_ACTIVE : 0);
+                slot.put(COURSE_SEMESTER_SLOT, (byte) course.getSemester().ordinal());
+                slot.putInt(COURSE_CREDITS_SLOT, course.getCredits());
+                slot.putInt(COURSE_CAPACITY_SLOT, course.getCapacity());
+                slot.putInt(COURSE_INSTRUCTOR_SLOT, out.dictionaryIndex(course.getInstructor()));
+                slot.putInt(COURSE_DEPARTMENT_SLOT, out.dictionaryIndex(course.getDepartment()));
+                slot.putInt(COURSE_DATA_SLOT, out.dataOffset());
+                
+                out.putString(record.id);
+                out.putString(course.getTitle());
+            }
+            out.commit();
+        }
+        return records.size();
+    }
+    
+    // Same formula as Student.calculateGPA, over exactly the grades being written
+    private static double gpa(List<GradeEntry> grades) {
+        double points = 0;
+        int credits = 0;
+        for (GradeEntry entry : grades) {
+            points += entry.getGrade().getGradePoint() * entry.getWeight();
+            credits += entry.getWeight();
+        }
+        return credits == 0 ? 0.0 : points / credits;
+    }
+    
+    // A record with its ID encoded once, for sorting by ID bytes
+    private static class Keyed<T> {
+        final byte[] id;
+        final T value;
+        
+        Keyed(byte[] id, T value) {
+            this.id = id;
+            this.value = value;
+        }
+    }
+    
+    private static <T> List<Keyed<T>> sortById(Collection<T> values, Function<T, String> id) {
+        List<Keyed<T>> records = new ArrayList<>(values.size());
+        for (T value : values) {
+            records.add(new Keyed<>(id.apply(value).getBytes(StandardCharsets.UTF_8), value));
+        }
+        records.sort((a, b) -> Arrays.compareUnsigned(a.id, b.id));
+        return records;
+    }
+    
+    // Streams the data area through a SnapshotWriter while collecting the slot table and
+    // dictionary in memory; both are appended, with the trailer, on commit
+    private static class TableWriter implements AutoCloseable {
+        private final SnapshotWriter writer;
+        private final int slotBytes;
+        private final ByteBuffer slots;
+        private final Map<String, Integer> dictionary = new LinkedHashMap<>();
+        private final int count;
+        
+        TableWriter(Path file, byte kind, int count, int slotBytes) throws IOException {
+            this.writer = new SnapshotWriter(file);
+            this.count = count;
+            this.slotBytes = slotBytes;
+            this.slots = ByteBuffer.allocate(Math.multiplyExact(count, slotBytes));
+            ByteBuffer header = writer.reserve(HEADER_BYTES);
+            header.putInt(MAGIC);
+            header.putShort((short) VERSION);
+            header.put(kind);
+            header.put((byte) 0);
+        }
+        
+        // The next record's slot, as a slotBytes-wide buffer indexed from 0
+        ByteBuffer nextSlot() {
+            ByteBuffer slot = slots.slice(slots.position(), slotBytes);
+            slots.position(slots.position() + slotBytes);
+            return slot;
+        }
+        
+        int dictionaryIndex(String value) {
+            if (value == null) return NO_ENTRY;
+            return dictionary.computeIfAbsent(value, v -> dictionary.size());
+        }
+        
+        int dataOffset() throws IOException {
+            return offset();
+        }
+        
+        ByteBuffer reserve(int bytes) throws IOException {
+            return writer.reserve(bytes);
+        }
+        
+        void putString(String value) throws IOException {
+            if (value == null) {
+                writer.reserve(2).putShort((short) NULL_STRING);
+                return;
+            }
+            putString(value.getBytes(StandardCharsets.UTF_8));
+        }
+        
+        void putString(byte[] bytes) throws IOException {
+            if (bytes.length >= NULL_STRING) {
+                throw new IOException("String of " + bytes.length + " bytes is too long for a mapped snapshot");
+            }
+            writer.reserve(2).putShort((short) bytes.length);
+            writer.write(bytes);
+        }
+        
+        void commit() throws IOException {
+            int slotOffset = offset();
+            writer.write(slots.array());
+            int dictionaryOffset = offset();
+            writer.reserve(4).putInt(dictionary.size());
+            for (String value : dictionary.keySet()) {
+                putString(value);
+            }
+            ByteBuffer trailer = writer.reserve(TRAILER_BYTES);
+            trailer.putInt(count);
+            trailer.putInt(slotBytes);
+            trailer.putInt(slotOffset);
+            trailer.putInt(dictionaryOffset);
+            trailer.putInt(MAGIC);
+            offset(); // Fails the write if the trailer itself crossed the limit
+            writer.commit();
+        }
+        
+        private int offset() throws IOException {
+            long offset = writer.getBytesWritten();
+            if (offset > Integer.MAX_VALUE - TRAILER_BYTES) {
+                throw new IOException("Mapped snapshot would exceed 2 GB");
+            }
+            return (int) offset;
+        }
+        
+        @Override
+        public void close() throws IOException {
+            writer.close();
+        }
+    }
+    
+    // --- Reading ---
+    
+    public static StudentTable openStudents(Path file) throws IOException {
+        return new StudentTable(file);
+    }
+    
+    public static CourseTable openCourses(Path file) throws IOException {
+        return new CourseTable(file);
+    }
+    
+    // Read-only view over one mapped file. Lookups by position or ID read the mapping
+    // directly; get() and the Searchable methods build objects from it on demand, so
+    // each call returns fresh objects. Safe for concurrent readers - only absolute reads
+    // are used. The mapping is released when the table is garbage collected.
+    public abstract static class Table<T> implements Searchable<T> {
+        protected final ByteBuffer file;
+        protected final String[] dictionary;
+        private final int count;
+        private final int slotBytes;
+        private final int slotOffset;
+        private final int dataSlot;
+        
+        Table(Path path, byte kind, int expectedSlotBytes, int dataSlot) throws IOException {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                long size = channel.size();
+                if (size < HEADER_BYTES + TRAILER_BYTES || size > Integer.MAX_VALUE) {
+                    throw new IOException("Not a CCRM mapped snapshot: " + path);
+                }
+                this.file = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            }
+            int end = file.capacity() - TRAILER_BYTES;
+            if (file.getInt(0) != MAGIC || file.getInt(end + 16) != MAGIC) {
+                throw new IOException("Not a CCRM mapped snapshot: " + path);
+            }
+            int version = Short.toUnsignedInt(file.getShort(4));
+            if (version > VERSION) {
+                throw new IOException("Unsupported mapped snapshot version " + version + " in " + path);
+            }
+            if (file.get(6) != kind) {
+                throw new IOException("Unexpected record kind " + file.get(6) + " in " + path);
+            }
+            this.count = file.getInt(end);
+            this.slotBytes = file.getInt(end + 4);
+            this.slotOffset = file.getInt(end + 8);
+            this.dataSlot = dataSlot;
+            if (slotBytes < expectedSlotBytes || (long) count * slotBytes > end - slotOffset) {
+                throw new IOException("Corrupt slot table in " + path);
+            }
+            
+            int position = file.getInt(end + 12);
+            this.dictionary = new String[file.getInt(position)];
+            position += 4;
+            for (int i = 0; i < dictionary.length; i++) {
+                dictionary[i] = stringAt(position);
+                position = skipString(position);
+            }
+        }
+        
+        // Builds the record at a position in ID order
+        protected abstract T materialize(int index);
+        
+        public int size() {
+            return count;
+        }
+        
+        public T get(int index) {
+            return materialize(Objects.checkIndex(index, count));
+        }
+        
+        public String getId(int index) {
+            return stringAt(dataOffset(Objects.checkIndex(index, count)));
+        }
+        
+        // Position of the record with this ID, or -1; binary search without decoding records
+        public int indexOf(String id) {
+            byte[] key = id.getBytes(StandardCharsets.UTF_8);
+            int low = 0;
+            int high = count - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int cmp = compareId(mid, key);
+                if (cmp < 0) low = mid + 1;
+                else if (cmp > 0) high = mid - 1;
+                else return mid;
+            }
+            return -1;
+        }
+        
+        // Records in ID order, each built when it is read
+        public List<T> asList() {
+            return new LazyList();
+        }
+        
+        @Override
+        public Stream<T> stream() {
+            return IntStream.range(0, count).mapToObj(this::materialize);
+        }
+        
+        // Keyset page in file order, which is UTF-8 byte order of the IDs
+        @Override
+        public Page<T> page(String afterId, int size, Predicate<T> criteria) {
+            if (size <= 0) {
+                throw new IllegalArgumentException("Page size must be positive: " + size);
+            }
+            int index = afterId == null ? 0 : firstAfter(afterId.getBytes(StandardCharsets.UTF_8));
+            List<T> items = new ArrayList<>(Math.min(size, 64));
+            int last = -1;
+            for (; index < count; index++) {
+                T record = materialize(index);
+                if (!criteria.test(record)) continue;
+                if (items.size() == size) {
+                    return new Page<>(items, getId(last));
+                }
+                items.add(record);
+                last = index;
+            }
+            return new Page<>(items, null);
+        }
+        
+        @Override
+        public List<T> search(Predicate<T> criteria) {
+            return stream().filter(criteria).collect(Collectors.toList());
+        }
+        
+        @Override
+        public List<T> findAll() {
+            return stream().collect(Collectors.toList());
+        }
+        
+        @Override
+        public T findById(String id) {
+            int index = indexOf(id);
+            return index < 0 ? null : materialize(index);
+        }
+        
+        @Override
+        public long count() {
+            return count;
+        }
+        
+        protected int slot(int index) {
+            return slotOffset + index * slotBytes;
+        }
+        
+        protected int dataOffset(int index) {
+            return file.getInt(slot(index) + dataSlot);
+        }
+        
+        protected String dictionaryValue(int index) {
+            return index == NO_ENTRY ? null : dictionary[index];
+        }
+        
+        protected String stringAt(int position) {
+            int length = Short.toUnsignedInt(file.getShort(position));
+            if (length == NULL_STRING) return null;
+            byte[] bytes = new byte[length];
+            file.get(position + 2, bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+        
+        protected int skipString(int position) {
+            int length = Short.toUnsignedInt(file.getShort(position));
+            return position + 2 + (length == NULL_STRING ? 0 : length);
+        }
+        
+        // Position of the first record whose ID sorts after key
+        private int firstAfter(byte[] key) {
+            int low = 0;
+            int high = count;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (compareId(mid, key) <= 0) low = mid + 1;
+                else high = mid;
+            }
+            return low;
+        }
+        
+        private int compareId(int index, byte[] key) {
+            int position = dataOffset(index);
+            int length = Short.toUnsignedInt(file.getShort(position));
+            int common = Math.min(length, key.length);
+            for (int i = 0; i < common; i++) {
+                int cmp = Integer.compare(file.get(position + 2 + i) & 0xFF, key[i] & 0xFF);
+                if (cmp != 0) return cmp;
+            }
+            return Integer.compare(length, key.length);
+        }
+        
+        private class LazyList extends AbstractList<T> implements RandomAccess {
+            @Override public T get(int index) { return Table.this.get(index); }
+            @Override public int size() { return count; }
+        }
+    }
+    
+    public static final class StudentTable extends Table<Student> {
+        StudentTable(Path path) throws IOException {
+            super(path, KIND_STUDENTS, STUDENT_SLOT_BYTES, STUDENT_DATA_SLOT);
+        }
+        
+        // Scalar fields straight from the slot, without building the Student
+        public StudentStatus getStatus(int index) {
+            return STATUSES[file.get(slot(Objects.checkIndex(index, size())) + STUDENT_STATUS_SLOT)];
+        }
+        
+        public double getGpa(int index) {
+            return file.getDouble(slot(Objects.checkIndex(index, size())) + STUDENT_GPA_SLOT);
+        }
+        
+        public String getDepartment(int index) {
+            return dictionaryValue(file.getInt(slot(Objects.checkIndex(index, size())) + STUDENT_DEPARTMENT_SLOT));
+        }
+        
+        @Override
+        protected Student materialize(int index) {
+            int slot = slot(index);
+            int position = dataOffset(index);
+            String id = stringAt(position);
+            position = skipString(position);
+            String regNo = stringAt(position);
+            position = skipString(position);
+            String firstName = stringAt(position);
+            position = skipString(position);
+            String lastName = stringAt(position);
+            position = skipString(position);
+            String email = stringAt(position);
+            position = skipString(position);
+            
+            Student student = new Student(id, new Name(firstName, lastName), email, regNo);
+            student.setDepartment(dictionaryValue(file.getInt(slot + STUDENT_DEPARTMENT_SLOT)));
+            student.setStatus(STATUSES[file.get(slot + STUDENT_STATUS_SLOT)]);
+            
+            int courseCount = file.getInt(slot + STUDENT_COURSES_SLOT);
+            List<String> courses = new ArrayList<>(courseCount);
+            for (int c = 0; c < courseCount; c++, position += 4) {
+                courses.add(dictionaryValue(file.getInt(position)));
+            }
+            student.restoreEnrollments(courses, file.getInt(slot + STUDENT_CREDITS_SLOT));
+            
+            int gradeCount = file.getInt(slot + STUDENT_GRADES_SLOT);
+            for (int g = 0; g < gradeCount; g++, position += GRADE_BYTES) {
+                Grade grade = GRADES[file.get(position)];
+                int course = file.getInt(position + 3);
+                if (course == NO_ENTRY) {
+                    student.addGrade(GradeEntry.unattributed(grade));
+                } else {
+                    byte semester = file.get(position + 1);
+                    student.addGrade(new GradeEntry(grade, dictionary[course],
+                        semester == NO_ENTRY ? null : SEMESTERS[semester], file.get(position + 2) & 0xFF));
+                }
+            }
+            return student;
+        }
+    }
+    
+    public static final class CourseTable extends Table<Course> {
+        CourseTable(Path path) throws IOException {
+            super(path, KIND_COURSES, COURSE_SLOT_BYTES, COURSE_DATA_SLOT);
+        }
+        
+        public Semester getSemester(int index) {
+            return SEMESTERS[file.get(slot(Objects.checkIndex(index, size())) + COURSE_SEMESTER_SLOT)];
+        }
+        
+        public int getCredits(int index) {
+            return file.getInt(slot(Objects.checkIndex(index, size())) + COURSE_CREDITS_SLOT);
+        }
+        
+        public boolean isActive(int index) {
+            return (file.get(slot(Objects.checkIndex(index, size())) + COURSE_FLAGS_SLOT) & FLAG_ACTIVE) != 0;
+        }
+        
+        @Override
+        protected Course materialize(int index) {
+            int slot = slot(index);
+            int position = dataOffset(index);
+            String code = stringAt(position);
+            String title = stringAt(skipString(position));
+            return new Course.Builder(code, title, file.getInt(slot + COURSE_CREDITS_SLOT))
+                    .instructor(dictionaryValue(file.getInt(slot + COURSE_INSTRUCTOR_SLOT)))
+                    .department(dictionaryValue(file.getInt(slot + COURSE_DEPARTMENT_SLOT)))
+                    .semester(SEMESTERS[file.get(slot + COURSE_SEMESTER_SLOT)])
+                    .active((file.get(slot + COURSE_FLAGS_SLOT) & FLAG_ACTIVE) != 0)
+                    .capacity(file.getInt(slot + COURSE_CAPACITY_SLOT))
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,668 @@
+package edu.ccrm.io;
+
+import edu.ccrm.domain.*;
+import edu.ccrm.exception.DuplicateEnrollmentException;
+import edu.ccrm.exception.MaxCreditLimitExceededException;
+import edu.ccrm.service.CourseService;
+import edu.ccrm.service.MutationJournal;
+import edu.ccrm.service.StudentService;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+// Append-only write-ahead log of every service mutation, replayed on top of the
+// latest snapshot at startup.
+//
+// File:   magic "CCRW" | u16 version | u16 reserved, then records. A log written in any
+//         other version is refused, not replayed - payloads are only read as this one.
+// Record: i32 payload length | i32 CRC32 of payload | payload (op byte + fields)
+// Fields are written one by one with DataOutput, never through a text format, so any
+// value that reached the services is logged exactly.
+//
+// Write-ahead: as the services' MutationJournal the log takes each change before it is
+// applied, and once a write to the file has failed it refuses every later change, so
+// memory never holds a change the log did not take. Changes whose records were pending
+// in the failed write stay in memory but their commit() throws; the log is fail-stop,
+// and a restart rebuilds memory from what reached the disk.
+//
+// Group commit: appends only copy the record into a pending buffer. A single flusher
+// thread writes whatever has accumulated and forces it with one fsync, so every
+// mutation that arrived while the previous fsync was running shares the next one.
+// commit() blocks the caller until its records are durable.
+//
+// Replay is idempotent - grade additions, corrections and removals carry a fingerprint of
+// the grade list they were made from and apply only to a student in exactly that state,
+// and every other op sets state - so replaying records already covered by a snapshot
+// (a crash between save and checkpoint, or records logged while a snapshot was being
+// written) converges to the same state. A student whose grades once returned to an
+// earlier list may pick up the history from there, but then retraces it to the end.
+public class MutationLog implements MutationJournal, Closeable {
+    public static final int MAGIC = 0x43435257; // "CCRW"
+    public static final int VERSION = 2; // 2: optional text in UPDATE_STUDENT / UPDATE_COURSE
+    private static final int FILE_HEADER_BYTES = 8;
+    private static final int RECORD_HEADER_BYTES = 8;
+    private static final int INITIAL_BUFFER_BYTES = 64 * 1024;
+    
+    private enum Op {
+        ADD_STUDENT, UPDATE_STUDENT, STATUS, ENROLL, UNENROLL,
+        GRADE, CORRECT_GRADE, REMOVE_GRADE,
+        ADD_COURSE, UPDATE_COURSE, DEACTIVATE_COURSE, CLEAR_STUDENTS, CLEAR_COURSES
+    }
+    
+    // Writes one op's fields into the record payload
+    private interface Fields {
+        void write(DataOutputStream out) throws IOException;
+    }
+    
+    private final Path file;
+    private FileChannel channel; // Swapped by checkpoint() while the flusher is idle; guarded by lock
+    private final Thread flusher;
+    private final Object lock = new Object();
+    private ByteBuffer pending = ByteBuffer.allocate(INITIAL_BUFFER_BYTES);
+    private ByteBuffer spare = ByteBuffer.allocate(INITIAL_BUFFER_BYTES);
+    private long appendedCount;
+    private long durableCount;
+    private long appendedBytes; // Log position past the last appended record - see position()
+    private long droppedBytes;  // Record bytes checkpoints have cut from the front of the file
+    private IOException failure;
+    private boolean closed;
+    
+    public MutationLog(Path file) throws IOException {
+        this.file = file;
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+            StandardOpenOption.WRITE);
+        try {
+            if (channel.size() < FILE_HEADER_BYTES) {
+                // New log, or a crash before its header was complete - nothing was logged yet
+                channel.truncate(0);
+                writeFileHeader(channel);
+                channel.force(true);
+            } else {
+                checkFileHeader(channel, file);
+            }
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        
+        // Cut off a torn tail left by a crash mid-write, so new records follow the last good one
+        long validEnd = scan(null);
+        if (validEnd < channel.size()) {
+            System.err.println("Mutation log: discarding " + (channel.size() - validEnd) + " bytes of torn tail");
+            channel.truncate(validEnd);
+        }
+        channel.position(validEnd);
+        this.appendedBytes = validEnd - FILE_HEADER_BYTES;
+        
+        this.flusher = new Thread(this::flushLoop, "ccrm-wal-flusher");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+    
+    public Path getFile() { return file; }
+    
+    // Applies every logged mutation to the services. Call before setting the log as their journal.
+    public int replay(StudentService studentService, CourseService courseService) throws IOException {
+        int[] applied = {0};
+        scan(payload -> {
+            apply(payload, studentService, courseService);
+            applied[0]++;
+        });
+        return applied[0];
+    }
+    
+    // Position just past every record appended so far. Take it before starting a snapshot
+    // and pass it to checkpoint() once the snapshot is saved. Positions keep counting
+    // across checkpoints, so an older position stays valid.
+    public long position() {
+        synchronized (lock) {
+            return appendedBytes;
+        }
+    }
+    
+    // Drops the records before position: the snapshot saved since holds their changes.
+    // Records after it were logged while the snapshot was being written and may or may
+    // not be in it, so they are kept - replay is idempotent. The kept tail is copied to
+    // a new file that replaces the log with one rename, so a crash leaves one or the other.
+    public void checkpoint(long position) throws IOException {
+        synchronized (lock) {
+            // Once every appended record is durable (checked with the lock held) the flusher
+            // has no batch in flight, so the file ends at appendedBytes and can be swapped
+            while (durableCount < appendedCount) {
+                awaitDurable(appendedCount);
+            }
+            long cut = Math.min(position, appendedBytes) - droppedBytes;
+            if (cut <= 0) {
+                return;
+            }
+            long kept = channel.size() - FILE_HEADER_BYTES - cut;
+            Path directory = file.toAbsolutePath().getParent();
+            Path temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+            FileChannel next = FileChannel.open(temp, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            try {
+                if (Files.getFileStore(temp).supportsFileAttributeView(PosixFileAttributeView.class)) {
+                    Files.setPosixFilePermissions(temp, Files.getPosixFilePermissions(file));
+                }
+                writeFileHeader(next);
+                for (long copied = 0; copied < kept; ) {
+                    copied += channel.transferTo(FILE_HEADER_BYTES + cut + copied, kept - copied, next);
+                }
+                next.force(true);
+                Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException e) {
+                next.close();
+                Files.deleteIfExists(temp);
+                throw e;
+            }
+            channel.close();
+            channel = next; // Still open on the renamed file
+            channel.position(FILE_HEADER_BYTES + kept);
+            droppedBytes += cut;
+            syncDirectory(directory);
+        }
+    }
+    
+    // --- MutationJournal ---
+    
+    @Override
+    public void addStudent(Student student) {
+        append(Op.ADD_STUDENT, out -> writeStudent(out, student));
+    }
+    
+    @Override
+    public void updateStudent(Student student, String email) {
+        append(Op.UPDATE_STUDENT, out -> {
+            out.writeUTF(student.getId());
+            writeText(out, email);
+        });
+    }
+    
+    @Override
+    public void changeStatus(Student student, StudentStatus status) {
+        append(Op.STATUS, out -> {
+            out.writeUTF(student.getId());
+            out.writeByte(status.ordinal());
+        });
+    }
+    
+    @Override
+    public void enroll(Student student, String courseCode, int credits) {
+        append(Op.ENROLL, out -> {
+            out.writeUTF(student.getId());
+            out.writeUTF(courseCode);
+            out.writeInt(credits);
+        });
+    }
+    
+    @Override
+    public void unenroll(Student student, String courseCode, int credits) {
+        append(Op.UNENROLL, out -> {
+            out.writeUTF(student.getId());
+            out.writeUTF(courseCode);
+            out.writeInt(credits);
+        });
+    }
+    
+    // The grade changes are journaled before they apply, so the student's grades are still
+    // the list the change is made from
+    @Override
+    public void recordGrade(Student student, GradeEntry entry) {
+        long before = fingerprint(student.getGradeEntries());
+        append(Op.GRADE, out -> {
+            out.writeUTF(student.getId());
+            writeGrade(out, entry);
+            out.writeLong(before);
+        });
+    }
+    
+    @Override
+    public void correctGrade(Student student, int index, Grade grade) {
+        long before = fingerprint(student.getGradeEntries());
+        append(Op.CORRECT_GRADE, out -> {
+            out.writeUTF(student.getId());
+            out.writeInt(index);
+            out.writeByte(grade.ordinal());
+            out.writeLong(before);
+        });
+    }
+    
+    @Override
+    public void removeGrade(Student student, int index) {
+        long before = fingerprint(student.getGradeEntries());
+        append(Op.REMOVE_GRADE, out -> {
+            out.writeUTF(student.getId());
+            out.writeInt(index);
+            out.writeLong(before);
+        });
+    }
+    
+    @Override
+    public void clearStudents() {
+        append(Op.CLEAR_STUDENTS, out -> {});
+    }
+    
+    @Override
+    public void addCourse(Course course) {
+        append(Op.ADD_COURSE, out -> writeCourse(out, course));
+    }
+    
+    @Override
+    public void updateCourse(Course course, String instructor) {
+        append(Op.UPDATE_COURSE, out -> {
+            out.writeUTF(course.getCode());
+            writeText(out, instructor);
+        });
+    }
+    
+    @Override
+    public void deactivateCourse(Course course) {
+        append(Op.DEACTIVATE_COURSE, out -> out.writeUTF(course.getCode()));
+    }
+    
+    @Override
+    public void clearCourses() {
+        append(Op.CLEAR_COURSES, out -> {});
+    }
+    
+    @Override
+    public void commit() {
+        synchronized (lock) {
+            try {
+                awaitDurable(appendedCount);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Mutation log write failed", e);
+            }
+        }
+    }
+    
+    @Override
+    public void close() throws IOException {
+        synchronized (lock) {
+            closed = true;
+            lock.notifyAll();
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+    }
+    
+    // --- Writing ---
+    
+    private void append(Op op, Fields fields) {
+        byte[] payload;
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(op.ordinal());
+            fields.write(out);
+            payload = bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // In-memory stream - not expected
+        }
+        
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        
+        synchronized (lock) {
+            if (closed) {
+                throw new IllegalStateException("Mutation log is closed");
+            }
+            if (failure != null) {
+                throw new UncheckedIOException("Mutation log write failed", failure);
+            }
+            int needed = RECORD_HEADER_BYTES + payload.length;
+            if (pending.remaining() < needed) {
+                ByteBuffer grown = ByteBuffer.allocate(Math.max(pending.capacity() * 2, pending.position() + needed));
+                pending.flip();
+                grown.put(pending);
+                pending = grown;
+            }
+            pending.putInt(payload.length);
+            pending.putInt((int) crc.getValue());
+            pending.put(payload);
+            appendedCount++;
+            appendedBytes += needed;
+            lock.notifyAll();
+        }
+    }
+    
+    // Caller holds lock
+    private void awaitDurable(long target) throws IOException {
+        boolean interrupted = false;
+        while (durableCount < target && failure == null) {
+            try {
+                lock.wait();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+    
+    private void flushLoop() {
+        while (true) {
+            ByteBuffer batch;
+            long batchCount;
+            synchronized (lock) {
+                while (pending.position() == 0 && !closed) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (pending.position() == 0) {
+                    return; // Closed and fully drained
+                }
+                batch = pending;
+                batchCount = appendedCount;
+                pending = spare;
+            }
+            
+            IOException error = null;
+            try {
+                batch.flip();
+                while (batch.hasRemaining()) {
+                    channel.write(batch);
+                }
+                channel.force(false);
+            } catch (IOException e) {
+                error = e;
+            }
+            
+            synchronized (lock) {
+                batch.clear();
+                spare = batch;
+                if (error != null) {
+                    failure = error;
+                } else {
+                    durableCount = batchCount;
+                }
+                lock.notifyAll();
+                if (error != null) return;
+            }
+        }
+    }
+    
+    // Writes at the start of an empty channel and leaves its position after the header
+    private static void writeFileHeader(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_BYTES);
+        header.putInt(MAGIC);
+        header.putShort((short) VERSION);
+        header.putShort((short) 0);
+        header.flip();
+        channel.position(0);
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+    }
+    
+    private static void checkFileHeader(FileChannel channel, Path file) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_BYTES);
+        while (header.hasRemaining()) {
+            if (channel.read(header, header.position()) < 0) break;
+        }
+        header.flip();
+        if (header.getInt() != MAGIC) {
+            throw new IOException("Not a CCRM mutation log: " + file);
+        }
+        int version = Short.toUnsignedInt(header.getShort());
+        if (version != VERSION) {
+            throw new IOException("Unsupported mutation log version " + version + " in " + file);
+        }
+    }
+    
+    // Makes the rename durable; best effort where a directory cannot be opened
+    private static void syncDirectory(Path directory) {
+        try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)) {
+            dir.force(true);
+        } catch (IOException e) {
+            // The rename is still atomic, just not yet forced
+        }
+    }
+    
+    // --- Record fields ---
+    
+    private static void writeStudent(DataOutputStream out, Student student) throws IOException {
+        out.writeUTF(student.getId());
+        out.writeUTF(student.getRegNo());
+        writeText(out, student.getFullName().getFirstName());
+        writeText(out, student.getFullName().getLastName());
+        writeText(out, student.getEmail());
+        writeText(out, student.getDepartment());
+        out.writeByte(student.getStatus().ordinal());
+        out.writeDouble(student.getTotalCredits());
+        List<String> courses = student.getEnrolledCourses();
+        out.writeInt(courses.size());
+        for (String code : courses) {
+            out.writeUTF(code);
+        }
+        writeGrades(out, student.getGradeEntries());
+    }
+    
+    private static Student readStudent(DataInputStream in) throws IOException {
+        String id = in.readUTF();
+        String regNo = in.readUTF();
+        Name name = new Name(readText(in), readText(in));
+        Student student = new Student(id, name, readText(in), regNo);
+        student.setDepartment(readText(in));
+        student.setStatus(StudentStatus.values()[in.readUnsignedByte()]);
+        double totalCredits = in.readDouble();
+        List<String> courses = new ArrayList<>();
+        for (int i = in.readInt(); i > 0; i--) {
+            courses.add(in.readUTF());
+        }
+        student.restoreEnrollments(courses, totalCredits);
+        for (GradeEntry entry : readGrades(in)) {
+            student.addGrade(entry);
+        }
+        return student;
+    }
+    
+    private static void writeCourse(DataOutputStream out, Course course) throws IOException {
+        out.writeUTF(course.getCode());
+        writeText(out, course.getTitle());
+        out.writeInt(course.getCredits());
+        writeText(out, course.getInstructor());
+        writeText(out, course.getDepartment());
+        out.writeByte(course.getSemester().ordinal());
+        out.writeBoolean(course.isActive());
+        out.writeInt(course.getCapacity());
+    }
+    
+    private static Course readCourse(DataInputStream in) throws IOException {
+        Course.Builder builder = new Course.Builder(in.readUTF(), readText(in), in.readInt());
+        return builder.instructor(readText(in))
+                .department(readText(in))
+                .semester(Semester.values()[in.readUnsignedByte()])
+                .active(in.readBoolean())
+                .capacity(in.readInt())
+                .build();
+    }
+    
+    // grade byte | attributed flag | course, term byte, credits for attributed grades
+    private static void writeGrade(DataOutputStream out, GradeEntry entry) throws IOException {
+        out.writeByte(entry.getGrade().ordinal());
+        out.writeBoolean(entry.isAttributed());
+        if (entry.isAttributed()) {
+            out.writeUTF(entry.getCourseCode());
+            out.writeByte(entry.getSemester().ordinal());
+            out.writeInt(entry.getCredits());
+        }
+    }
+    
+    private static GradeEntry readGrade(DataInputStream in) throws IOException {
+        Grade grade = Grade.values()[in.readUnsignedByte()];
+        if (!in.readBoolean()) {
+            return GradeEntry.unattributed(grade);
+        }
+        return new GradeEntry(grade, in.readUTF(), Semester.values()[in.readUnsignedByte()], in.readInt());
+    }
+    
+    private static void writeGrades(DataOutputStream out, List<GradeEntry> grades) throws IOException {
+        out.writeInt(grades.size());
+        for (GradeEntry entry : grades) {
+            writeGrade(out, entry);
+        }
+    }
+    
+    private static List<GradeEntry> readGrades(DataInputStream in) throws IOException {
+        List<GradeEntry> grades = new ArrayList<>();
+        for (int i = in.readInt(); i > 0; i--) {
+            grades.add(readGrade(in));
+        }
+        return grades;
+    }
+    
+    // 64-bit FNV-1a over the grade list, for matching a student against the state a grade
+    // change was made from. Courses enter by code - symbol IDs differ between runs.
+    private static long fingerprint(List<GradeEntry> grades) {
+        long hash = mix(0xcbf29ce484222325L, grades.size());
+        for (GradeEntry entry : grades) {
+            hash = mix(hash, entry.getGrade().ordinal());
+            if (entry.isAttributed()) {
+                hash = mix(hash, entry.getCourseCode().hashCode());
+                hash = mix(hash, entry.getSemester().ordinal());
+                hash = mix(hash, entry.getCredits());
+            } else {
+                hash = mix(hash, -1);
+            }
+        }
+        return hash;
+    }
+    
+    private static long mix(long hash, int value) {
+        for (int shift = 0; shift < 32; shift += 8) {
+            hash = (hash ^ ((value >>> shift) & 0xff)) * 0x100000001b3L;
+        }
+        return hash;
+    }
+    
+    private static boolean madeFrom(Student student, long before) {
+        return student != null && fingerprint(student.getGradeEntries()) == before;
+    }
+    
+    // writeUTF rejects null, so optional text carries a presence flag
+    private static void writeText(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+    
+    private static String readText(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+    
+    // --- Reading ---
+    
+    private interface PayloadHandler {
+        void accept(DataInputStream payload) throws IOException;
+    }
+    
+    // Walks the log from the start and returns the offset just past the last intact record
+    private long scan(PayloadHandler handler) throws IOException {
+        long size = channel.size();
+        long position = FILE_HEADER_BYTES;
+        ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_BYTES);
+        CRC32 crc = new CRC32();
+        
+        while (position + RECORD_HEADER_BYTES <= size) {
+            header.clear();
+            channel.read(header, position);
+            header.flip();
+            int length = header.getInt();
+            int checksum = header.getInt();
+            if (length <= 0 || position + RECORD_HEADER_BYTES + length > size) break;
+            
+            ByteBuffer payload = ByteBuffer.allocate(length);
+            while (payload.hasRemaining()) {
+                if (channel.read(payload, position + RECORD_HEADER_BYTES + payload.position()) < 0) break;
+            }
+            crc.reset();
+            crc.update(payload.array(), 0, length);
+            if ((int) crc.getValue() != checksum) break;
+            
+            if (handler != null) {
+                handler.accept(new DataInputStream(new ByteArrayInputStream(payload.array())));
+            }
+            position += RECORD_HEADER_BYTES + length;
+        }
+        return position;
+    }
+    
+    private static void apply(DataInputStream in, StudentService students, CourseService courses)
+            throws IOException {
+        Op op = Op.values()[in.readUnsignedByte()];
+        switch (op) {
+            case ADD_STUDENT -> {
+                Student student = readStudent(in);
+                if (students.findById(student.getId()) == null) {
+                    try {
+                        students.addStudent(student);
+                    } catch (DuplicateEnrollmentException e) {
+                        // Already in the snapshot
+                    }
+                }
+            }
+            case UPDATE_STUDENT -> students.updateStudent(in.readUTF(), readText(in));
+            case STATUS -> students.changeStatus(in.readUTF(), StudentStatus.values()[in.readUnsignedByte()]);
+            case ENROLL -> {
+                String id = in.readUTF();
+                String code = in.readUTF();
+                int credits = in.readInt();
+                try {
+                    students.enrollInCourse(id, code, credits);
+                } catch (MaxCreditLimitExceededException e) {
+                    // Only happens when the snapshot already holds a later schedule - a later op settles it
+                }
+            }
+            case UNENROLL -> students.unenrollFromCourse(in.readUTF(), in.readUTF(), in.readInt());
+            case GRADE -> {
+                String id = in.readUTF();
+                GradeEntry entry = readGrade(in);
+                if (madeFrom(students.findById(id), in.readLong())) {
+                    students.recordGrade(id, entry);
+                }
+            }
+            case CORRECT_GRADE -> {
+                String id = in.readUTF();
+                int index = in.readInt();
+                Grade grade = Grade.values()[in.readUnsignedByte()];
+                if (madeFrom(students.findById(id), in.readLong())) {
+                    students.correctGrade(id, index, grade);
+                }
+            }
+            case REMOVE_GRADE -> {
+                String id = in.readUTF();
+                int index = in.readInt();
+                if (madeFrom(students.findById(id), in.readLong())) {
+                    students.removeGrade(id, index);
+                }
+            }
+            case ADD_COURSE -> courses.addCourse(readCourse(in));
+            case UPDATE_COURSE -> courses.updateCourse(in.readUTF(), readText(in));
+            case DEACTIVATE_COURSE -> courses.deactivateCourse(in.readUTF());
+            case CLEAR_STUDENTS -> students.clear();
+            case CLEAR_COURSES -> courses.clear();
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package edu.ccrm.io;
+
+import edu.ccrm.domain.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Parses very large students.csv / courses.csv exports in parallel. The file is
+// memory-mapped, cut into line-aligned chunks, and the chunks are parsed on a ForkJoinPool.
+// Rows come back in file order, so merging them behaves exactly like the streaming importer.
+// Chunks are cut at line ends. A chunk that ends inside a quoted value means a cut fell
+// inside a record, and the file is read with the streaming importer instead.
+public class ParallelCsvImporter {
+    public static final int DEFAULT_CHUNK_BYTES = 8 * 1024 * 1024;
+    
+    private final ForkJoinPool pool;
+    private final int chunkBytes;
+    
+    public ParallelCsvImporter() {
+        this(ForkJoinPool.commonPool(), DEFAULT_CHUNK_BYTES);
+    }
+    
+    public ParallelCsvImporter(ForkJoinPool pool, int chunkBytes) {
+        if (chunkBytes <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive");
+        }
+        this.pool = pool;
+        this.chunkBytes = chunkBytes;
+    }
+    
+    public List<Student> parseStudents(Path file) throws IOException {
+        return parse(file, CsvImporter::parseStudent);
+    }
+    
+    public List<Course> parseCourses(Path file) throws IOException {
+        return parse(file, CsvImporter::parseCourse);
+    }
+    
+    private <T> List<T> parse(Path file, Function<String, T> parser) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            List<long[]> chunks = splitIntoChunks(channel);
+            if (chunks.isEmpty()) {
+                return new ArrayList<>();
+            }
+            List<T> rows = pool.invoke(new ChunkTask<>(channel, chunks, 0, chunks.size(), parser));
+            if (rows != null) {
+                return rows;
+            }
+        }
+        try (Stream<T> rows = CsvImporter.stream(file, parser)) {
+            return rows.collect(Collectors.toCollection(ArrayList::new));
+        }
+    }
+    
+    // Chunk boundaries are moved forward to the byte after the next '\n', so no row is ever
+    // split between two chunks. '\n' never occurs inside a multi-byte UTF-8 sequence.
+    private List<long[]> splitIntoChunks(FileChannel channel) throws IOException {
+        long size = channel.size();
+        List<long[]> chunks = new ArrayList<>();
+        
+        long start = nextLineStart(channel, 0, size); // Skip header row
+        while (start < size) {
+            long end = start + chunkBytes >= size ? size : nextLineStart(channel, start + chunkBytes, size);
+            chunks.add(new long[] { start, end });
+            start = end;
+        }
+        return chunks;
+    }
+    
+    private static long nextLineStart(FileChannel channel, long from, long size) throws IOException {
+        ByteBuffer probe = ByteBuffer.allocate(4096);
+        long position = from;
+        while (position < size) {
+            probe.clear();
+            int read = channel.read(probe, position);
+            if (read <= 0) break;
+            for (int i = 0; i < read; i++) {
+                if (probe.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+    
+    // Splits the chunk list in halves until a single chunk is left, then parses it
+    @SuppressWarnings("serial") // Fork-join tasks are never serialized
+    private static class ChunkTask<T> extends RecursiveTask<List<T>> {
+        private final FileChannel channel;
+        private final List<long[]> chunks;
+        private final int from;
+        private final int to;
+        private final Function<String, T> parser;
+        
+        ChunkTask(FileChannel channel, List<long[]> chunks, int from, int to, Function<String, T> parser) {
+            this.channel = channel;
+            this.chunks = chunks;
+            this.from = from;
+            this.to = to;
+            this.parser = parser;
+        }
+        
+        @Override
+        protected List<T> compute() {
+            if (to - from == 1) {
+                long[] chunk = chunks.get(from);
+                try {
+                    return parseChunk(channel.map(FileChannel.MapMode.READ_ONLY, chunk[0], chunk[1] - chunk[0]));
+                } catch (IOException e) {
+                    throw new IllegalStateException("Failed to map chunk at byte " + chunk[0], e);
+                }
+            }
+            
+            int mid = (from + to) >>> 1;
+            ChunkTask<T> left = new ChunkTask<>(channel, chunks, from, mid, parser);
+            left.fork();
+            List<T> right = new ChunkTask<>(channel, chunks, mid, to, parser).compute();
+            List<T> merged = left.join();
+            if (merged == null || right == null) {
+                return null;
+            }
+            merged.addAll(right);
+            return merged;
+        }
+        
+        // Rows of one chunk, or null if a cut at either end fell inside a quoted value - checked
+        // before parsing, so half a record is never reported as malformed. A line break within
+        // quotes continues the record; '"' never occurs inside a multi-byte UTF-8 sequence.
+        private List<T> parseChunk(MappedByteBuffer buffer) {
+            int limit = buffer.limit();
+            int quotes = 0;
+            for (int i = 0; i < limit; i++) {
+                if (buffer.get(i) == '"') quotes++;
+            }
+            if (quotes % 2 != 0) {
+                return null;
+            }
+            
+            List<T> rows = new ArrayList<>();
+            byte[] line = new byte[256];
+            int lineStart = 0;
+            quotes = 0;
+            
+            for (int i = 0; i <= limit; i++) {
+                if (i < limit) {
+                    byte b = buffer.get(i);
+                    if (b == '"') quotes++;
+                    if (b != '\n' || quotes % 2 != 0) continue;
+                }
+                
+                int length = i - lineStart;
+                if (length > 0 && buffer.get(lineStart + length - 1) == '\r') length--;
+                if (length > 0) {
+                    if (length > line.length) line = new byte[Math.max(length, line.length * 2)];
+                    buffer.get(lineStart, line, 0, length);
+                    String text = new String(line, 0, length, StandardCharsets.UTF_8);
+                    if (!text.isBlank()) {
+                        T row = parser.apply(text);
+                        if (row != null) rows.add(row);
+                    }
+                }
+                lineStart = i + 1;
+            }
+            return rows;
+        }
+    }
+}
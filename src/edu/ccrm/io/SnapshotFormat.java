@@ -0,0 +1,29 @@
+package edu.ccrm.io;
+
+import java.nio.file.Path;
+
+// On-disk formats for the students / courses snapshot files
+public enum SnapshotFormat {
+    CSV(".csv"),     // Interchange format, readable by spreadsheets and other tools
+    BINARY(".bin"),  // Compact BinaryCodec format
+    MAPPED(".snap"); // MappedSnapshot tables - readable in place; loading a service decodes them all
+    
+    private final String extension;
+    
+    SnapshotFormat(String extension) {
+        this.extension = extension;
+    }
+    
+    public String getExtension() { return extension; }
+    
+    public String fileName(String baseName) {
+        return baseName + extension;
+    }
+    
+    public static SnapshotFormat forFile(Path file) {
+        String name = file.getFileName().toString();
+        if (name.endsWith(BINARY.extension)) return BINARY;
+        if (name.endsWith(MAPPED.extension)) return MAPPED;
+        return CSV;
+    }
+}
@@ -0,0 +1,122 @@
+package edu.ccrm.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Set;
+
+// Writes a snapshot file all-or-nothing. Records are streamed through one buffered
+// FileChannel into a temp file next to the target, forced to disk once in commit(),
+// and then renamed over the target. If the process dies part-way the previous
+// snapshot is left untouched; close() without commit() discards the temp file.
+// Each writer gets its own uniquely named temp file, so concurrent saves of one target
+// never interleave - the last commit wins whole.
+public class SnapshotWriter implements Closeable {
+    private static final int BUFFER_BYTES = 256 * 1024;
+    private static final byte NEWLINE = '\n';
+    // Snapshots are ordinary data files, readable like any other export
+    private static final Set<PosixFilePermission> FILE_PERMISSIONS = PosixFilePermissions.fromString("rw-r--r--");
+    
+    private final Path target;
+    private final Path temp;
+    private final FileChannel channel;
+    private ByteBuffer buffer;
+    private long bytesWritten;
+    private boolean committed;
+    
+    public SnapshotWriter(Path target) throws IOException {
+        this.target = target.toAbsolutePath();
+        Path directory = this.target.getParent();
+        Files.createDirectories(directory);
+        this.temp = Files.createTempFile(directory, this.target.getFileName().toString(), ".tmp");
+        setPermissions(temp, this.target);
+        this.channel = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        this.buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+    }
+    
+    public void writeLine(String line) throws IOException {
+        write(line.getBytes(StandardCharsets.UTF_8));
+        reserve(1).put(NEWLINE);
+    }
+    
+    public void write(byte[] bytes) throws IOException {
+        int offset = 0;
+        while (offset < bytes.length) {
+            if (!buffer.hasRemaining()) flush();
+            int length = Math.min(buffer.remaining(), bytes.length - offset);
+            buffer.put(bytes, offset, length);
+            offset += length;
+        }
+    }
+    
+    // Returns the write buffer with at least the given number of bytes free,
+    // for callers that encode fixed-width fields directly
+    public ByteBuffer reserve(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush();
+            if (buffer.capacity() < bytes) {
+                buffer = ByteBuffer.allocateDirect(bytes);
+            }
+        }
+        return buffer;
+    }
+    
+    public long getBytesWritten() {
+        return bytesWritten + buffer.position();
+    }
+    
+    // Single fsync for the whole snapshot, then an atomic rename into place
+    public void commit() throws IOException {
+        flush();
+        channel.force(true);
+        channel.close();
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        committed = true;
+        syncDirectory(target.getParent());
+    }
+    
+    @Override
+    public void close() throws IOException {
+        if (!committed) {
+            channel.close();
+            Files.deleteIfExists(temp);
+        }
+    }
+    
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            bytesWritten += channel.write(buffer);
+        }
+        buffer.clear();
+    }
+    
+    // createTempFile makes the file owner-only; the snapshot keeps the target's current
+    // permissions, or FILE_PERMISSIONS for a new one. No-op where POSIX permissions do not exist.
+    private static void setPermissions(Path temp, Path target) throws IOException {
+        if (!Files.getFileStore(temp).supportsFileAttributeView(PosixFileAttributeView.class)) {
+            return;
+        }
+        Files.setPosixFilePermissions(temp,
+            Files.exists(target) ? Files.getPosixFilePermissions(target) : FILE_PERMISSIONS);
+    }
+    
+    // Makes the rename itself durable. Not every platform allows opening a directory,
+    // in which case the rename is still atomic, just not yet forced.
+    private static void syncDirectory(Path directory) {
+        try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)) {
+            dir.force(true);
+        } catch (IOException e) {
+            // Best effort only
+        }
+    }
+}
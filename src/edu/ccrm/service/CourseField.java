@@ -0,0 +1,24 @@
+package edu.ccrm.service;
+
+import edu.ccrm.domain.Course;
+
+public enum CourseField implements QueryField<Course> {
+    DEPARTMENT {
+        @Override public Comparable<?> valueOf(Course c) { return QueryField.fold(c.getDepartment()); }
+        @Override public Comparable<?> normalize(Comparable<?> value) { return QueryField.fold(value); }
+    },
+    INSTRUCTOR {
+        @Override public Comparable<?> valueOf(Course c) { return QueryField.fold(c.getInstructor()); }
+        @Override public Comparable<?> normalize(Comparable<?> value) { return QueryField.fold(value); }
+    },
+    SEMESTER {
+        @Override public Comparable<?> valueOf(Course c) { return c.getSemester(); }
+    },
+    CREDITS {
+        @Override public Comparable<?> valueOf(Course c) { return c.getCredits(); }
+        @Override public Comparable<?> normalize(Comparable<?> value) { return ((Number) value).intValue(); }
+    },
+    ACTIVE {
+        @Override public Comparable<?> valueOf(Course c) { return c.isActive(); }
+    }
+}
@@ -1,71 +1,411 @@
-package edu.ccrm.service;
-
-import edu.ccrm.domain.*;
-import java.util.*;
-import java.util.function.Predicate;
-import java.util.stream.Collectors;
-
-public class CourseService implements Searchable<Course>, Persistable {
-    private Map<String, Course> courses;
-    
-    public CourseService() {
-        this.courses = new HashMap<>();
-    }
-    
-    public void addCourse(Course course) {
-        courses.put(course.getCode(), course);
-    }
-    
-    public void updateCourse(String code, String instructor) {
-        Course course = courses.get(code);
-        if (course != null) {
-            course.setInstructor(instructor);
-        }
-    }
-    
-    public void deactivateCourse(String code) {
-        Course course = courses.get(code);
-        if (course != null) {
-            course.setActive(false);
-        }
-    }
-    
-    @Override
-    public List<Course> search(Predicate<Course> criteria) {
-        return courses.values().stream()
-                .filter(criteria)
-                .collect(Collectors.toList());
-    }
-    
-    @Override
-    public List<Course> findAll() {
-        return new ArrayList<>(courses.values());
-    }
-    
-    @Override
-    public Course findById(String id) {
-        return courses.get(id);
-    }
-    
-    public List<Course> findByDepartment(String department) {
-        return search(c -> c.getDepartment().equalsIgnoreCase(department));
-    }
-    
-    public List<Course> findByInstructor(String instructor) {
-        return search(c -> c.getInstructor().equalsIgnoreCase(instructor));
-    }
-    
-    public List<Course> findBySemester(Semester semester) {
-        return search(c -> c.getSemester() == semester);
-    }
-    
-    @Override
-    public void save() throws Exception {
-        System.out.println("Saving courses to file...");
-    }
-    
-    @Override
-    public void load() throws Exception {
-        System.out.println("Loading courses from file...");
-    }
-}
\ No newline at end of file
+package edu.ccrm.service;
+
+import edu.ccrm.config.AppConfig;
+import edu.ccrm.domain.*;
+import edu.ccrm.io.BinaryCodec;
+import edu.ccrm.io.CsvExporter;
+import edu.ccrm.io.CsvImporter;
+import edu.ccrm.io.MappedSnapshot;
+import edu.ccrm.io.ParallelCsvImporter;
+import edu.ccrm.io.SnapshotFormat;
+import edu.ccrm.util.MultiIndex;
+import edu.ccrm.util.SortedMultiIndex;
+import edu.ccrm.util.StripedLocks;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Safe to share between request threads, on the same model as StudentService:
+// concurrent stores and indexes for lock-free reads, per-course stripe locks around
+// each change and its events, an optional journal that takes each change before it is
+// applied, and listener commits outside the lock.
+public class CourseService implements Searchable<Course>, Persistable {
+    private static final int LOCK_STRIPES = 64;
+    
+    private final Map<String, Course> courses = new ConcurrentHashMap<>();
+    private final List<MutationListener> listeners = new CopyOnWriteArrayList<>();
+    private volatile MutationJournal journal = MutationJournal.NONE;
+    // Set by openMapped until the table is loaded, with the listeners its records go to
+    private volatile MappedSnapshot.CourseTable mapped;
+    private List<MutationListener> mappedListeners;
+    private final StripedLocks locks = new StripedLocks(LOCK_STRIPES);
+    
+    // Secondary indexes, kept in step with every change made through this service.
+    // Inactive courses stay indexed - the finders have always returned them.
+    private final MultiIndex<String, Course> byDepartment = new MultiIndex<>(ConcurrentHashMap::new);
+    private final MultiIndex<String, Course> byInstructor = new MultiIndex<>(ConcurrentHashMap::new);
+    private final MultiIndex<Semester, Course> bySemester = MultiIndex.forEnum(Semester.class);
+    private final SortedMultiIndex<Integer, Course> byCredits = new SortedMultiIndex<>();
+    private final ConcurrentNavigableMap<String, Course> byCode = new ConcurrentSkipListMap<>(); // Code order for listings
+    
+    private final QueryPlanner<Course> planner = new QueryPlanner<>(new QueryPlanner.Indexes<Course>() {
+        @Override
+        public QueryPlanner.Access<Course> equalTo(QueryField<Course> field, Comparable<?> value) {
+            if (field == CourseField.DEPARTMENT) {
+                String department = (String) value;
+                return new QueryPlanner.Access<>("INDEX department = " + department,
+                    byDepartment.count(department), () -> byDepartment.get(department));
+            }
+            if (field == CourseField.INSTRUCTOR) {
+                String instructor = (String) value;
+                return new QueryPlanner.Access<>("INDEX instructor = " + instructor,
+                    byInstructor.count(instructor), () -> byInstructor.get(instructor));
+            }
+            if (field == CourseField.SEMESTER) {
+                Semester semester = (Semester) value;
+                return new QueryPlanner.Access<>("INDEX semester = " + semester, bySemester.count(semester),
+                    () -> bySemester.get(semester));
+            }
+            if (field == CourseField.CREDITS) {
+                return range(field, value, value);
+            }
+            return null;
+        }
+        
+        @Override
+        public QueryPlanner.Access<Course> range(QueryField<Course> field, Comparable<?> min, Comparable<?> max) {
+            if (field != CourseField.CREDITS) return null;
+            Integer from = (Integer) min;
+            Integer to = (Integer) max;
+            return new QueryPlanner.Access<>("INDEX credits in [" + (from == null ? "-inf" : from) + ", "
+                + (to == null ? "+inf" : to) + "]", byCredits.countRange(from, to), () -> byCredits.range(from, to));
+        }
+        
+        @Override public int size() { return courses.size(); }
+        @Override public Collection<Course> all() { return courses.values(); }
+    });
+    
+    public void addListener(MutationListener listener) {
+        listeners.add(listener);
+    }
+    
+    public void removeListener(MutationListener listener) {
+        listeners.remove(listener);
+    }
+    
+    // Set once loading and replay are done, so they are not journaled again; null for none
+    public void setJournal(MutationJournal journal) {
+        this.journal = journal == null ? MutationJournal.NONE : journal;
+    }
+    
+    private void fire(Consumer<MutationListener> event) {
+        fire(listeners, event);
+    }
+    
+    private static void fire(List<MutationListener> targets, Consumer<MutationListener> event) {
+        for (MutationListener listener : targets) {
+            event.accept(listener);
+        }
+    }
+    
+    private void commit() {
+        journal.commit();
+        for (MutationListener listener : listeners) {
+            listener.commit();
+        }
+    }
+    
+    public void addCourse(Course course) {
+        materialize();
+        put(course);
+        commit();
+    }
+    
+    // Bulk-insert path for imports - same last-write-wins semantics as addCourse,
+    // with one listener commit for the whole batch
+    public int bulkLoad(Stream<Course> source) {
+        materialize();
+        int loaded = 0;
+        Iterator<Course> it = source.iterator();
+        while (it.hasNext()) {
+            put(it.next());
+            loaded++;
+        }
+        commit(); // One commit for the whole batch
+        return loaded;
+    }
+    
+    private void put(Course course) {
+        put(course, journal, listeners);
+    }
+    
+    private void put(Course course, MutationJournal journal, List<MutationListener> targets) {
+        ReentrantLock lock = locks.get(course.getCode());
+        lock.lock();
+        try {
+            journal.addCourse(course);
+            Course replaced = courses.put(course.getCode(), course);
+            if (replaced != null) {
+                course.takeOverEnrollment(replaced);
+            }
+            reindex(replaced, course);
+            fire(targets, l -> l.courseAdded(course));
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    // A code re-added replaces the earlier course, so its index entries go first
+    private void reindex(Course replaced, Course course) {
+        if (replaced != null) {
+            byDepartment.remove(foldKey(replaced.getDepartment()), replaced);
+            byInstructor.remove(foldKey(replaced.getInstructor()), replaced);
+            bySemester.remove(replaced.getSemester(), replaced);
+            byCredits.remove(replaced.getCredits(), replaced);
+        }
+        byCode.put(course.getCode(), course);
+        byDepartment.add(foldKey(course.getDepartment()), course);
+        byInstructor.add(foldKey(course.getInstructor()), course);
+        bySemester.add(course.getSemester(), course);
+        byCredits.add(course.getCredits(), course);
+    }
+    
+    // Department and instructor lookups ignore case
+    private static String foldKey(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+    
+    // Drops every course, e.g. before restoring a backup. Not meant to overlap other mutations.
+    public void clear() {
+        materialize();
+        journal.clearCourses();
+        courses.clear();
+        byCode.clear();
+        byDepartment.clear();
+        byInstructor.clear();
+        bySemester.clear();
+        byCredits.clear();
+        fire(MutationListener::coursesCleared);
+        commit();
+    }
+    
+    // Runs a change to one course under its stripe lock; commits after unlocking if it applied
+    private boolean mutate(String code, Predicate<Course> change) {
+        materialize();
+        ReentrantLock lock = locks.get(code);
+        boolean applied;
+        lock.lock();
+        try {
+            Course course = courses.get(code);
+            applied = course != null && change.test(course);
+        } finally {
+            lock.unlock();
+        }
+        if (applied) {
+            commit();
+        }
+        return applied;
+    }
+    
+    public void updateCourse(String code, String instructor) {
+        mutate(code, course -> {
+            String previous = course.getInstructor();
+            journal.updateCourse(course, instructor);
+            course.setInstructor(instructor);
+            byInstructor.move(foldKey(previous), foldKey(instructor), course);
+            fire(l -> l.courseUpdated(course, previous));
+            return true;
+        });
+    }
+    
+    public void deactivateCourse(String code) {
+        mutate(code, course -> {
+            if (!course.isActive()) return false;
+            journal.deactivateCourse(course);
+            course.setActive(false);
+            fire(l -> l.courseDeactivated(course));
+            return true;
+        });
+    }
+    
+    // --- Reading a mapped snapshot in place ---
+    
+    // Same contract as StudentService.openMapped: the Searchable reads are served from the
+    // table as decoded copies, and anything else loads it first
+    public void openMapped(Path file) throws IOException {
+        MappedSnapshot.CourseTable table = MappedSnapshot.openCourses(file);
+        synchronized (this) {
+            if (mapped != null || !courses.isEmpty()) {
+                throw new IllegalStateException("Courses are already loaded");
+            }
+            mappedListeners = new ArrayList<>(listeners);
+            mapped = table;
+        }
+        System.out.println("Opened " + table.size() + " courses in " + file + " for reading.");
+    }
+    
+    // Loads the table left by openMapped, once; a no-op otherwise
+    private void materialize() {
+        if (mapped == null) return;
+        synchronized (this) {
+            MappedSnapshot.CourseTable table = mapped;
+            if (table == null) return;
+            for (int i = 0; i < table.size(); i++) {
+                put(table.get(i), MutationJournal.NONE, mappedListeners);
+            }
+            for (MutationListener listener : mappedListeners) {
+                listener.commit();
+            }
+            mappedListeners = null;
+            mapped = null;
+        }
+    }
+    
+    // The stored courses themselves, never decoded copies - for callers that change a
+    // course in place, as EnrollmentService does with seat counts and waitlists
+    Course findStored(String code) {
+        materialize();
+        return courses.get(code);
+    }
+    
+    Collection<Course> findAllStored() {
+        materialize();
+        return courses.values();
+    }
+    
+    @Override
+    public List<Course> search(Predicate<Course> criteria) {
+        MappedSnapshot.CourseTable table = mapped;
+        if (table != null) return table.search(criteria);
+        return courses.values().stream()
+                .filter(criteria)
+                .collect(Collectors.toList());
+    }
+    
+    @Override
+    public List<Course> findAll() {
+        MappedSnapshot.CourseTable table = mapped;
+        if (table != null) return table.findAll();
+        return new ArrayList<>(courses.values());
+    }
+    
+    @Override
+    public Course findById(String id) {
+        MappedSnapshot.CourseTable table = mapped;
+        if (table != null) return table.findById(id);
+        return courses.get(id);
+    }
+    
+    // Weakly consistent, like StudentService.stream()
+    @Override
+    public Stream<Course> stream() {
+        MappedSnapshot.CourseTable table = mapped;
+        if (table != null) return table.stream();
+        return byCode.values().stream();
+    }
+    
+    @Override
+    public Page<Course> page(String afterId, int size, Predicate<Course> criteria) {
+        MappedSnapshot.CourseTable table = mapped;
+        if (table != null) return table.page(afterId, size, criteria);
+        return Page.of(byCode, afterId, size, criteria);
+    }
+    
+    @Override
+    public QueryResult<Course> query(Query<Course> query) {
+        materialize();
+        return planner.execute(query);
+    }
+    
+    @Override
+    public long count() {
+        MappedSnapshot.CourseTable table = mapped;
+        if (table != null) return table.count();
+        return courses.size();
+    }
+    
+    public List<Course> findByDepartment(String department) {
+        materialize();
+        return byDepartment.get(foldKey(department));
+    }
+    
+    public List<Course> findByInstructor(String instructor) {
+        materialize();
+        return byInstructor.get(foldKey(instructor));
+    }
+    
+    public List<Course> findBySemester(Semester semester) {
+        materialize();
+        return bySemester.get(semester);
+    }
+    
+    // Courses with minCredits <= credits <= maxCredits, lowest credits first; null leaves a bound open
+    public List<Course> findByCreditRange(Integer minCredits, Integer maxCredits) {
+        materialize();
+        return byCredits.range(minCredits, maxCredits);
+    }
+    
+    @Override
+    public void save() throws Exception {
+        AppConfig config = AppConfig.getInstance();
+        saveTo(Paths.get(config.getDataFolderPath(), config.getSnapshotFormat().fileName("courses")));
+    }
+    
+    public void saveTo(Path file) throws Exception {
+        materialize();
+        System.out.println("Saving courses to " + file + "...");
+        int saved;
+        switch (SnapshotFormat.forFile(file)) {
+            case BINARY: saved = BinaryCodec.writeCourses(file, courses.values()); break;
+            case MAPPED: saved = MappedSnapshot.writeCourses(file, courses.values()); break;
+            default: saved = CsvExporter.writeCourses(file, courses.values());
+        }
+        System.out.println("Saved " + saved + " courses.");
+    }
+    
+    @Override
+    public void load() throws Exception {
+        AppConfig config = AppConfig.getInstance();
+        loadFrom(Paths.get(config.getDataFolderPath(), config.getSnapshotFormat().fileName("courses")));
+    }
+    
+    // Picks the codec from the file extension - .bin is BinaryCodec, .snap is
+    // MappedSnapshot, anything else is CSV
+    public void loadFrom(Path file) throws Exception {
+        if (SnapshotFormat.forFile(file) == SnapshotFormat.MAPPED) {
+            System.out.println("Loading courses from " + file + "...");
+            MappedSnapshot.CourseTable table = MappedSnapshot.openCourses(file);
+            int loaded = bulkLoad(table.stream()); // Decodes every record, as for students
+            System.out.println("Loaded " + loaded + " courses.");
+            return;
+        }
+        
+        if (SnapshotFormat.forFile(file) == SnapshotFormat.BINARY) {
+            System.out.println("Loading courses from " + file + "...");
+            List<Course> decoded = BinaryCodec.readCourses(file);
+            int loaded = bulkLoad(decoded.stream());
+            System.out.println("Loaded " + loaded + " courses.");
+            return;
+        }
+        
+        if (Files.size(file) >= AppConfig.getInstance().getParallelImportThreshold()) {
+            loadParallel(file);
+            return;
+        }
+        
+        System.out.println("Loading courses from " + file + "...");
+        try (Stream<Course> rows = CsvImporter.streamCourses(file)) {
+            int loaded = bulkLoad(rows);
+            System.out.println("Loaded " + loaded + " courses.");
+        }
+    }
+    
+    // Large exports: memory-mapped, parsed chunk by chunk on the fork-join pool, then merged in file order
+    public void loadParallel(Path file) throws Exception {
+        System.out.println("Loading courses from " + file + " in parallel...");
+        List<Course> parsed = new ParallelCsvImporter().parseCourses(file);
+        int loaded = bulkLoad(parsed.stream());
+        System.out.println("Loaded " + loaded + " courses.");
+    }
+}
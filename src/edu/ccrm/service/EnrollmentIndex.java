@@ -0,0 +1,209 @@
+package edu.ccrm.service;
+
+import edu.ccrm.domain.*;
+import edu.ccrm.util.IntSet;
+import edu.ccrm.util.SymbolTable;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Enrollments in both directions - course -> students (the roster) and student ->
+// courses - kept in step from MutationListener events, so a roster is a lookup rather
+// than a scan over every student. Students are mapped to dense int IDs by a SymbolTable
+// when they are added, courses use their Symbols.COURSE_CODES IDs, and each side of the
+// relation is an IntSet of the other side's IDs.
+//
+// No lock is shared by all courses. Rosters are read far more often than enrollments
+// change, so each roster is guarded by one of a fixed set of read-write locks picked by
+// course ID, and each student's course set by its own monitor. Only adding a student or
+// the first enrollment in a new course code grows the ID-indexed arrays under this
+// object's monitor; the arrays are published through volatile fields, so readers take
+// only the lock of the set they read.
+public class EnrollmentIndex implements MutationListener {
+    private static final int LOCK_STRIPES = 64; // Power of two
+    private static final IntSet[] NO_SETS = new IntSet[0];
+    
+    private final ReadWriteLock[] rosterLocks = new ReadWriteLock[LOCK_STRIPES];
+    
+    // Replaced as a whole when students are cleared
+    private volatile SymbolTable studentIds = new SymbolTable("student ID");
+    private volatile Student[] students = new Student[64];
+    private volatile IntSet[] coursesByStudent = new IntSet[64];
+    
+    private volatile IntSet[] studentsByCourse = NO_SETS; // Indexed by course code ID
+    
+    public EnrollmentIndex() {
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            rosterLocks[i] = new ReentrantReadWriteLock();
+        }
+    }
+    
+    // Students enrolled in the course, in no particular order
+    public List<Student> getRoster(String courseCode) {
+        int course = Symbols.COURSE_CODES.idOf(courseCode);
+        IntSet roster = rosterOf(course);
+        if (roster == null) return new ArrayList<>();
+        ReadWriteLock lock = rosterLock(course);
+        lock.readLock().lock();
+        try {
+            Student[] byId = students; // Read under the lock, so it holds every student on the roster
+            List<Student> result = new ArrayList<>(roster.size());
+            roster.forEach(student -> result.add(byId[student]));
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public int getRosterSize(String courseCode) {
+        int course = Symbols.COURSE_CODES.idOf(courseCode);
+        IntSet roster = rosterOf(course);
+        if (roster == null) return 0;
+        ReadWriteLock lock = rosterLock(course);
+        lock.readLock().lock();
+        try {
+            return roster.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public List<String> getCourses(String studentId) {
+        IntSet courses = coursesOf(studentId);
+        if (courses == null) return new ArrayList<>();
+        synchronized (courses) {
+            List<String> result = new ArrayList<>(courses.size());
+            courses.forEach(course -> result.add(Symbols.COURSE_CODES.valueOf(course)));
+            return result;
+        }
+    }
+    
+    public boolean isEnrolled(String studentId, String courseCode) {
+        IntSet courses = coursesOf(studentId);
+        if (courses == null) return false;
+        int course = Symbols.COURSE_CODES.idOf(courseCode);
+        synchronized (courses) {
+            return courses.contains(course);
+        }
+    }
+    
+    // null if nobody has ever enrolled in the course
+    private IntSet rosterOf(int course) {
+        IntSet[] rosters = studentsByCourse;
+        return course == SymbolTable.NOT_FOUND || course >= rosters.length ? null : rosters[course];
+    }
+    
+    private IntSet coursesOf(String studentId) {
+        int student = studentIds.idOf(studentId);
+        IntSet[] sets = coursesByStudent;
+        // A student mid-registration may have its ID before the arrays have grown to it
+        return student == SymbolTable.NOT_FOUND || student >= sets.length ? null : sets[student];
+    }
+    
+    private ReadWriteLock rosterLock(int course) {
+        return rosterLocks[course & (LOCK_STRIPES - 1)];
+    }
+    
+    // --- Maintenance ---
+    
+    // Gives a new student its dense ID and course set
+    private synchronized int register(Student student) {
+        int id = studentIds.intern(student.getId());
+        if (id >= students.length) {
+            int capacity = Math.max(id + 1, students.length * 2);
+            coursesByStudent = Arrays.copyOf(coursesByStudent, capacity);
+            students = Arrays.copyOf(students, capacity);
+        }
+        if (coursesByStudent[id] == null) {
+            coursesByStudent[id] = new IntSet();
+        }
+        students[id] = student;
+        return id;
+    }
+    
+    // The course's roster, creating rosters up to it the first time a code is enrolled in
+    private IntSet rosterFor(int course) {
+        IntSet roster = rosterOf(course);
+        if (roster != null) return roster;
+        synchronized (this) {
+            IntSet[] rosters = studentsByCourse;
+            if (course >= rosters.length) {
+                int old = rosters.length;
+                rosters = Arrays.copyOf(rosters, Math.max(course + 1, old * 2));
+                for (int i = old; i < rosters.length; i++) {
+                    rosters[i] = new IntSet();
+                }
+                studentsByCourse = rosters;
+            }
+            return rosters[course];
+        }
+    }
+    
+    // Events for one student arrive under its StudentService stripe lock, so a student is
+    // registered by studentAdded before any of its enrollments arrive
+    private void link(int student, int course) {
+        IntSet courses = coursesByStudent[student];
+        synchronized (courses) {
+            courses.add(course);
+        }
+        IntSet roster = rosterFor(course);
+        ReadWriteLock lock = rosterLock(course);
+        lock.writeLock().lock();
+        try {
+            roster.add(student);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    private void unlink(Student student, int course) {
+        int s = studentIds.idOf(student.getId());
+        IntSet roster = rosterOf(course);
+        if (s == SymbolTable.NOT_FOUND || roster == null) return;
+        IntSet courses = coursesByStudent[s];
+        synchronized (courses) {
+            courses.remove(course);
+        }
+        ReadWriteLock lock = rosterLock(course);
+        lock.writeLock().lock();
+        try {
+            roster.remove(s);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    private int idOf(Student student) {
+        int id = studentIds.idOf(student.getId());
+        return id == SymbolTable.NOT_FOUND ? register(student) : id;
+    }
+    
+    // --- MutationListener ---
+    
+    // Loaded records arrive with their enrollments already in place
+    @Override
+    public void studentAdded(Student student) {
+        int id = register(student);
+        student.forEachEnrolledCourseId(course -> link(id, course));
+    }
+    
+    @Override
+    public void enrolled(Student student, String courseCode, int credits) {
+        link(idOf(student), Symbols.COURSE_CODES.intern(courseCode));
+    }
+    
+    @Override
+    public void unenrolled(Student student, String courseCode, int credits) {
+        unlink(student, Symbols.COURSE_CODES.idOf(courseCode));
+    }
+    
+    // Not meant to overlap other mutations, like the services' clear()
+    @Override
+    public synchronized void studentsCleared() {
+        studentIds = new SymbolTable("student ID");
+        students = new Student[64];
+        coursesByStudent = new IntSet[64];
+        studentsByCourse = NO_SETS;
+    }
+}
@@ -0,0 +1,272 @@
+package edu.ccrm.service;
+
+import edu.ccrm.domain.*;
+import edu.ccrm.exception.DuplicateEnrollmentException;
+import edu.ccrm.exception.MaxCreditLimitExceededException;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+
+// Capacity-aware enrollment. The seat comes first, from the course's lock-free counter
+// (Course.tryReserveSeat), and only then is the enrollment recorded under the student's
+// stripe lock in StudentService. If recording fails - credit cap, or a concurrent
+// duplicate - the seat is handed back. So a popular course never oversubscribes, and
+// the seat check itself takes no lock. Recording still does: the student's stripe, the
+// course's EnrollmentIndex stripe, and two locks every course shares - the mutation
+// log's append lock and StatisticsEngine's monitor - each held only for an in-memory
+// update.
+//
+// A full course puts the student on its waitlist. Dropping a course frees the seat and
+// promotes the next waitlisted student who can still take it. Deactivating a course
+// drops its whole roster and waitlist; deactivating a student keeps their schedule.
+//
+// Batch schedules are all-or-nothing per student and run in parallel across students.
+public class EnrollmentService {
+    public enum Result { ENROLLED, WAITLISTED }
+    
+    // Outcome of a batch: every student either got their whole schedule or is listed
+    // in failures with the reason, and was left exactly as before
+    public static class BatchResult {
+        private final int students;
+        private final long enrollments;
+        private final Map<String, String> failures;
+        
+        BatchResult(int students, long enrollments, Map<String, String> failures) {
+            this.students = students;
+            this.enrollments = enrollments;
+            this.failures = failures;
+        }
+        
+        public int getStudentCount() { return students; }
+        public int getEnrolledStudentCount() { return students - failures.size(); }
+        public long getEnrollmentCount() { return enrollments; }
+        public Map<String, String> getFailures() { return Collections.unmodifiableMap(failures); }
+        public boolean isSuccessful() { return failures.isEmpty(); }
+    }
+    
+    private final StudentService studentService;
+    private final CourseService courseService;
+    private final ForkJoinPool pool;
+    
+    public EnrollmentService(StudentService studentService, CourseService courseService) {
+        this(studentService, courseService, ForkJoinPool.commonPool());
+    }
+    
+    public EnrollmentService(StudentService studentService, CourseService courseService, ForkJoinPool pool) {
+        this.studentService = studentService;
+        this.courseService = courseService;
+        this.pool = pool;
+    }
+    
+    public Result enroll(String studentId, String courseCode)
+            throws DuplicateEnrollmentException, MaxCreditLimitExceededException {
+        Student student = requireStudent(studentId);
+        Course course = requireCourse(courseCode);
+        if (!course.isActive()) {
+            throw new IllegalArgumentException("Course " + courseCode + " is not active");
+        }
+        if (student.isEnrolledIn(courseCode)) {
+            throw new DuplicateEnrollmentException("Student " + studentId + " is already enrolled in " + courseCode);
+        }
+        if (course.isWaitlisted(studentId)) {
+            throw new DuplicateEnrollmentException("Student " + studentId + " is already waitlisted for " + courseCode);
+        }
+        // Checked before taking a seat so over-cap requests never hold one, even briefly
+        if (!student.canTakeCredits(course.getCredits())) {
+            throw new MaxCreditLimitExceededException(
+                "Cannot exceed " + Student.MAX_CREDITS_PER_SEMESTER + " credits per semester");
+        }
+        
+        if (!course.tryReserveSeat()) {
+            if (!course.addToWaitlist(studentId)) {
+                throw new DuplicateEnrollmentException("Student " + studentId + " is already waitlisted for " + courseCode);
+            }
+            // A seat freed after the failed reservation may have found the line still empty;
+            // promoting now keeps it from sitting idle while this student waits
+            promoteFromWaitlist(course);
+            return student.isEnrolledIn(courseCode) ? Result.ENROLLED : Result.WAITLISTED;
+        }
+        
+        boolean enrolled;
+        try {
+            enrolled = studentService.enrollInCourse(studentId, courseCode, course.getCredits());
+        } catch (MaxCreditLimitExceededException | RuntimeException e) {
+            course.releaseSeat(); // Another enrollment for this student got in first
+            throw e;
+        }
+        if (!enrolled) {
+            course.releaseSeat();
+            throw new DuplicateEnrollmentException("Student " + studentId + " is already enrolled in " + courseCode);
+        }
+        return Result.ENROLLED;
+    }
+    
+    // Applies each student's schedule (student ID -> course codes) as one unit. Students are
+    // independent - each takes only its own stripe lock and CAS seat reservations - so the
+    // batch is spread over the fork-join pool, and listeners commit once at the end.
+    public BatchResult enrollBatch(Map<String, List<String>> schedules) {
+        List<Map.Entry<String, List<String>>> entries = new ArrayList<>(schedules.entrySet());
+        Map<String, String> failures = new ConcurrentHashMap<>();
+        LongAdder enrollments = new LongAdder();
+        try {
+            pool.submit(() -> entries.parallelStream().forEach(entry -> {
+                try {
+                    enrollments.add(enrollSchedule(entry.getKey(), entry.getValue()));
+                } catch (DuplicateEnrollmentException | MaxCreditLimitExceededException
+                        | IllegalArgumentException | IllegalStateException e) {
+                    failures.put(entry.getKey(), e.getMessage());
+                }
+            })).join();
+        } finally {
+            studentService.commitPending(); // One commit for the whole batch
+        }
+        return new BatchResult(entries.size(), enrollments.sum(), failures);
+    }
+    
+    // One pass resolves the courses and checks duplicates and the credit total, then a
+    // seat is reserved in every course before anything is recorded. Any failure hands
+    // back the seats taken so far, leaving the student and the courses untouched.
+    private int enrollSchedule(String studentId, List<String> courseCodes)
+            throws DuplicateEnrollmentException, MaxCreditLimitExceededException {
+        Student student = requireStudent(studentId);
+        Map<String, Integer> credits = new LinkedHashMap<>();
+        List<Course> courses = new ArrayList<>(courseCodes.size());
+        int total = 0;
+        for (String code : courseCodes) {
+            Course course = requireCourse(code);
+            if (!course.isActive()) {
+                throw new IllegalArgumentException("Course " + code + " is not active");
+            }
+            if (student.isEnrolledIn(code)) {
+                throw new DuplicateEnrollmentException("Student " + studentId + " is already enrolled in " + code);
+            }
+            if (credits.put(code, course.getCredits()) != null) {
+                throw new DuplicateEnrollmentException("Course " + code + " is listed twice for student " + studentId);
+            }
+            courses.add(course);
+            total += course.getCredits();
+        }
+        if (!student.canTakeCredits(total)) {
+            throw new MaxCreditLimitExceededException("Cannot exceed " + Student.MAX_CREDITS_PER_SEMESTER
+                + " credits per semester (" + total + " requested)");
+        }
+        
+        int reserved = 0;
+        try {
+            for (; reserved < courses.size(); reserved++) {
+                if (!courses.get(reserved).tryReserveSeat()) {
+                    throw new IllegalStateException("Course " + courses.get(reserved).getCode() + " is full");
+                }
+            }
+            studentService.applyEnrollments(studentId, credits);
+        } catch (DuplicateEnrollmentException | MaxCreditLimitExceededException | RuntimeException e) {
+            for (int i = 0; i < reserved; i++) {
+                courses.get(i).releaseSeat();
+            }
+            throw e;
+        }
+        for (Course course : courses) {
+            course.removeFromWaitlist(studentId); // Had been queued for a seat they now hold
+        }
+        return courses.size();
+    }
+    
+    // Drops the course (or leaves its waitlist) and fills the freed seat from the waitlist.
+    // Returns the ID of the student promoted into the seat, or null.
+    public String unenroll(String studentId, String courseCode) {
+        Course course = requireCourse(courseCode);
+        if (course.removeFromWaitlist(studentId)) {
+            return null;
+        }
+        if (!studentService.unenrollFromCourse(studentId, courseCode, course.getCredits())) {
+            return null;
+        }
+        course.releaseSeat();
+        return promoteFromWaitlist(course);
+    }
+    
+    // Seats can free up faster than this loop runs, so it keeps going while seats remain;
+    // waitlisted students who can no longer take the course are dropped from the line.
+    // It stops as soon as the course is inactive. deactivateCourse marks the course first
+    // and reads the roster after, so a promotion that lands after that read sees the mark
+    // on its re-check and is undone.
+    //
+    // Joining the line (enroll: join, then reserve) and giving a seat back here (release,
+    // then look at the line) run in opposite orders, so at least one side sees the other
+    // and a free seat never coexists with a waiting student.
+    private String promoteFromWaitlist(Course course) {
+        String promoted = null;
+        while (course.isActive() && course.tryReserveSeat()) {
+            String next = course.pollWaitlist();
+            if (next == null) {
+                course.releaseSeat();
+                if (!course.hasWaitlist()) break;
+                continue; // Someone joined after the poll and may have missed this seat
+            }
+            boolean enrolled;
+            try {
+                enrolled = studentService.enrollInCourse(next, course.getCode(), course.getCredits());
+            } catch (MaxCreditLimitExceededException e) {
+                enrolled = false;
+            }
+            if (enrolled && !course.isActive()) {
+                // Deactivated meanwhile; if its sweep already dropped the student it also freed the seat
+                if (studentService.unenrollFromCourse(next, course.getCode(), course.getCredits())) {
+                    course.releaseSeat();
+                }
+                break;
+            }
+            if (enrolled) {
+                if (promoted == null) promoted = next;
+            } else {
+                course.releaseSeat();
+            }
+        }
+        return promoted;
+    }
+    
+    // Closes the course and unenrolls everyone on its roster, returning their credits.
+    // Each drop is an ordinary unenrolled event, so the log and every index follow it.
+    // Returns the number of students unenrolled.
+    public int deactivateCourse(String courseCode) {
+        Course course = requireCourse(courseCode);
+        courseService.deactivateCourse(courseCode);
+        while (course.pollWaitlist() != null) {
+            // Nobody can be promoted into an inactive course
+        }
+        int dropped = 0;
+        for (Student student : studentService.getRoster(courseCode)) {
+            if (studentService.unenrollFromCourse(student.getId(), courseCode, course.getCredits())) {
+                course.releaseSeat();
+                dropped++;
+            }
+        }
+        return dropped;
+    }
+    
+    // Sets every course's seat count from its roster. Call after records are loaded or
+    // replayed outside this service (snapshots, the mutation log, backup restores).
+    public void recountSeats() {
+        for (Course course : courseService.findAllStored()) {
+            course.restoreEnrolledCount(studentService.getRosterSize(course.getCode()));
+        }
+    }
+    
+    private Student requireStudent(String studentId) {
+        Student student = studentService.findById(studentId);
+        if (student == null) {
+            throw new IllegalArgumentException("Student not found: " + studentId);
+        }
+        return student;
+    }
+    
+    private Course requireCourse(String courseCode) {
+        Course course = courseService.findStored(courseCode); // Seats and waitlists live on the stored object
+        if (course == null) {
+            throw new IllegalArgumentException("Course not found: " + courseCode);
+        }
+        return course;
+    }
+}
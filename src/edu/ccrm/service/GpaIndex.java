@@ -0,0 +1,131 @@
+package edu.ccrm.service;
+
+import edu.ccrm.domain.*;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+// Every student ordered by (GPA, regNo, ID) ascending, for GPA range queries such as
+// probation and honors lists. Unlike GpaLeaderboard it covers all students whatever
+// their status or grades - ungraded students sit at 0.0, as calculateGPA() reports -
+// so it can stand in for a scan of the whole population. Ranges and counts are
+// O(log n + k), so the query planner sizes a range with estimateRange() instead: per-bucket
+// counters over 0.1-wide GPA bands, summed in O(buckets). Kept current from MutationListener events.
+//
+// Lock-free for readers: entries live in a ConcurrentSkipListSet. Events for one student
+// arrive in order (StudentService fires them under that student's lock) and a refresh
+// swaps the stale entry for a new one. Results are weakly consistent: a range read
+// while a GPA moves may miss that student or, if the walk passes both entries, report
+// it once at its old position. Counts may be off by the students being updated.
+public class GpaIndex implements MutationListener {
+    private static final Comparator<Entry> ORDER = Comparator
+        .comparingDouble((Entry e) -> e.gpa)
+        .thenComparing(e -> e.regNo)
+        .thenComparing(e -> e.id);
+    
+    private static class Entry {
+        final double gpa;
+        final String regNo;
+        final String id;
+        final Student student;
+        
+        Entry(Student student) {
+            this(student.calculateGPA(), student.getRegNo(), student.getId(), student);
+        }
+        
+        Entry(double gpa, String regNo, String id, Student student) {
+            this.gpa = gpa;
+            this.regNo = regNo;
+            this.id = id;
+            this.student = student;
+        }
+        
+        // Sorts before every real entry with this GPA
+        static Entry bound(double gpa) {
+            return new Entry(gpa, "", "", null);
+        }
+    }
+    
+    private final ConcurrentSkipListSet<Entry> ordered = new ConcurrentSkipListSet<>(ORDER);
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    
+    private static final double BUCKET_WIDTH = 0.1;
+    private static final int BUCKETS = (int) (Grade.S.getGradePoint() / BUCKET_WIDTH) + 1;
+    private final AtomicIntegerArray bucketCounts = new AtomicIntegerArray(BUCKETS);
+    
+    // Students with min <= GPA <= max, lowest GPA first (ties by regNo); a null bound
+    // leaves that side open
+    public List<Student> range(Double min, Double max) {
+        Set<Student> students = new LinkedHashSet<>(); // Drops a student met at both its old and new GPA
+        for (Entry entry : slice(min, max)) {
+            students.add(entry.student);
+        }
+        return new ArrayList<>(students);
+    }
+    
+    public int countRange(Double min, Double max) {
+        return slice(min, max).size();
+    }
+    
+    // Upper bound on countRange() from the bucket counters: whole buckets at either edge are
+    // included, so it can overcount by the students sharing those bands with the range
+    public int estimateRange(Double min, Double max) {
+        if (min != null && max != null && min > max) {
+            return 0;
+        }
+        int to = max == null ? BUCKETS - 1 : bucket(max);
+        int estimate = 0;
+        for (int i = min == null ? 0 : bucket(min); i <= to; i++) {
+            estimate += bucketCounts.get(i);
+        }
+        return estimate;
+    }
+    
+    private static int bucket(double gpa) {
+        return Math.max(0, Math.min(BUCKETS - 1, (int) (gpa / BUCKET_WIDTH)));
+    }
+    
+    public int size() {
+        return entries.size();
+    }
+    
+    private NavigableSet<Entry> slice(Double min, Double max) {
+        if (min != null && max != null && min > max) {
+            return Collections.emptyNavigableSet();
+        }
+        // The upper bound is exclusive just past max, so it admits every regNo at max itself
+        if (min != null && max != null) return ordered.subSet(Entry.bound(min), true, Entry.bound(Math.nextUp(max)), false);
+        if (min != null) return ordered.tailSet(Entry.bound(min), true);
+        if (max != null) return ordered.headSet(Entry.bound(Math.nextUp(max)), false);
+        return ordered;
+    }
+    
+    private void refresh(Student student) {
+        Entry previous = entries.get(student.getId());
+        Entry entry = new Entry(student);
+        if (previous != null) {
+            if (ORDER.compare(previous, entry) == 0) return; // e.g. a grade that left the GPA unchanged
+            ordered.remove(previous);
+            bucketCounts.decrementAndGet(bucket(previous.gpa));
+        }
+        entries.put(student.getId(), entry);
+        ordered.add(entry);
+        bucketCounts.incrementAndGet(bucket(entry.gpa));
+    }
+    
+    @Override public void studentAdded(Student student) { refresh(student); }
+    @Override public void gradeRecorded(Student student, GradeEntry entry) { refresh(student); }
+    @Override public void gradeCorrected(Student student, int index, GradeEntry previous) { refresh(student); }
+    @Override public void gradeRemoved(Student student, int index, GradeEntry removed) { refresh(student); }
+    
+    @Override
+    public void studentsCleared() {
+        ordered.clear();
+        entries.clear();
+        for (int i = 0; i < BUCKETS; i++) {
+            bucketCounts.set(i, 0);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package edu.ccrm.service;
+
+import edu.ccrm.domain.*;
+import edu.ccrm.util.OrderStatisticTree;
+
+import java.util.*;
+
+// Live GPA ranking of active students with at least one grade: GPA descending, ties
+// broken by regNo (then ID) so the order is deterministic. Kept current from
+// MutationListener events; top-K and rank lookups are O(k + log n) and O(log n).
+// All access is synchronized - updates touch both the tree and the entry map.
+//
+// A student's GPA changes after the event that changed it, so each member's ranking
+// key is captured in an Entry and the stale entry is removed by that key.
+public class GpaLeaderboard implements MutationListener {
+    private static final Comparator<Entry> ORDER = Comparator
+        .comparingDouble((Entry e) -> -e.gpa)
+        .thenComparing(e -> e.regNo)
+        .thenComparing(e -> e.student.getId());
+    
+    private static class Entry {
+        final double gpa;
+        final String regNo;
+        final Student student;
+        
+        Entry(Student student) {
+            this.gpa = student.calculateGPA();
+            this.regNo = student.getRegNo();
+            this.student = student;
+        }
+    }
+    
+    private final OrderStatisticTree<Entry> ranking = new OrderStatisticTree<>(ORDER);
+    private final Map<String, Entry> entries = new HashMap<>();
+    
+    public synchronized List<Student> top(int limit) {
+        List<Student> students = new ArrayList<>(Math.min(limit, ranking.size()));
+        for (Entry entry : ranking.first(limit)) {
+            students.add(entry.student);
+        }
+        return students;
+    }
+    
+    // 1-based rank, or -1 for students not on the leaderboard
+    public synchronized int rankOf(String studentId) {
+        Entry entry = entries.get(studentId);
+        return entry == null ? -1 : ranking.rank(entry) + 1;
+    }
+    
+    public synchronized int size() {
+        return ranking.size();
+    }
+    
+    private synchronized void refresh(Student student) {
+        Entry previous = entries.remove(student.getId());
+        if (previous != null) {
+            ranking.remove(previous);
+        }
+        if (student.getStatus() == StudentStatus.ACTIVE && student.hasGrades()) {
+            Entry entry = new Entry(student);
+            entries.put(student.getId(), entry);
+            ranking.add(entry);
+        }
+    }
+    
+    @Override public void studentAdded(Student student) { refresh(student); }
+    @Override public void statusChanged(Student student, StudentStatus previous) { refresh(student); }
+    @Override public void gradeRecorded(Student student, GradeEntry entry) { refresh(student); }
+    @Override public void gradeCorrected(Student student, int index, GradeEntry previous) { refresh(student); }
+    @Override public void gradeRemoved(Student student, int index, GradeEntry removed) { refresh(student); }
+    
+    @Override
+    public synchronized void studentsCleared() {
+        ranking.clear();
+        entries.clear();
+    }
+}
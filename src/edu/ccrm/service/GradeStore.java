@@ -0,0 +1,401 @@
+package edu.ccrm.service;
+
+import edu.ccrm.domain.*;
+import edu.ccrm.util.SymbolTable;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Every grade ever recorded as a (student, course, semester, grade) fact, stored column
+// by column in parallel primitive arrays - row i is studentCol[i], courseCol[i], ... - so
+// ten years of history costs a dozen bytes a grade and analytics are tight loops over
+// arrays instead of walks over Student objects. Students are mapped to dense int IDs and
+// courses are stored as their Symbols.COURSE_CODES IDs. Each student's rows are chained
+// through nextCol in the order they were recorded, so a transcript visits only that
+// student's rows.
+//
+// The only copy of the grades of every student in a StudentService: adopt() moves a new
+// student's grades in, and from then on the student reads and changes them through the
+// Transcript it is handed here. Per-student running totals keep calculateGPA() O(1).
+// Rows are only appended between clears: a correction rewrites its row's grade, and a
+// removed grade's row is unlinked from its student's chain and its course cleared, so
+// transcripts and course scans both skip it. Reads share a read lock and changes take
+// the write lock; callers already hold the student's monitor, which is always taken first.
+public class GradeStore {
+    public static final int NONE = -1; // Course / semester column value for unattributed grades
+    
+    private static final int INITIAL_ROWS = 1024;
+    private static final Grade[] GRADES = Grade.values();
+    private static final Semester[] SEMESTERS = Semester.values();
+    
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    
+    // Columns
+    private int[] studentCol = new int[INITIAL_ROWS];
+    private int[] courseCol = new int[INITIAL_ROWS];
+    private byte[] semesterCol = new byte[INITIAL_ROWS];
+    private byte[] gradeCol = new byte[INITIAL_ROWS];
+    private byte[] creditCol = new byte[INITIAL_ROWS]; // GPA weight (unsigned), already resolved for unattributed grades
+    private int[] nextCol = new int[INITIAL_ROWS];     // Next row of the same student, or NONE
+    private int rows;
+    
+    // Per student, indexed by student ID: chain ends and running totals
+    private int[] firstRow = new int[INITIAL_ROWS];
+    private int[] lastRow = new int[INITIAL_ROWS];
+    private int[] gradeCount = new int[INITIAL_ROWS];
+    private double[] pointSum = new double[INITIAL_ROWS];
+    private int[] creditSum = new int[INITIAL_ROWS];
+    private final Map<String, Integer> studentIds = new HashMap<>();
+    
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return rows;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    // --- Per student ---
+    
+    public List<GradeEntry> getTranscript(String studentId) {
+        lock.readLock().lock();
+        try {
+            List<GradeEntry> transcript = new ArrayList<>();
+            for (int row = firstRowOf(studentId); row != NONE; row = nextCol[row]) {
+                transcript.add(entryAt(row));
+            }
+            return transcript;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public double getCreditWeightedGpa(String studentId) {
+        lock.readLock().lock();
+        try {
+            Integer student = studentIds.get(studentId);
+            return student == null || creditSum[student] == 0 ? 0.0 : pointSum[student] / creditSum[student];
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    // GPA over the grades earned in one term; 0.0 if there are none
+    public double getTermGpa(String studentId, Semester semester) {
+        return termGpa(studentId, semester.ordinal());
+    }
+    
+    // GPA per term, indexed by Semester ordinal; NaN for terms without grades
+    public double[] getTermGpas(String studentId) {
+        lock.readLock().lock();
+        try {
+            double[] points = new double[SEMESTERS.length];
+            int[] credits = new int[SEMESTERS.length];
+            for (int row = firstRowOf(studentId); row != NONE; row = nextCol[row]) {
+                int term = semesterCol[row];
+                if (term == NONE) continue;
+                points[term] += GRADES[gradeCol[row]].getGradePoint() * credits(row);
+                credits[term] += credits(row);
+            }
+            double[] gpas = new double[SEMESTERS.length];
+            for (int term = 0; term < gpas.length; term++) {
+                gpas[term] = credits[term] == 0 ? Double.NaN : points[term] / credits[term];
+            }
+            return gpas;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    private double termGpa(String studentId, int term) {
+        lock.readLock().lock();
+        try {
+            double points = 0;
+            int credits = 0;
+            for (int row = firstRowOf(studentId); row != NONE; row = nextCol[row]) {
+                if (semesterCol[row] != term) continue;
+                points += GRADES[gradeCol[row]].getGradePoint() * credits(row);
+                credits += credits(row);
+            }
+            return credits == 0 ? 0.0 : points / credits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    // --- Per course ---
+    
+    // Grade counts for one course, indexed by Grade ordinal
+    public long[] getCourseDistribution(String courseCode) {
+        lock.readLock().lock();
+        try {
+            long[] counts = new long[GRADES.length];
+            int c = Symbols.COURSE_CODES.idOf(courseCode);
+            if (c == SymbolTable.NOT_FOUND) return counts;
+            for (int row = 0; row < rows; row++) {
+                if (courseCol[row] == c) counts[gradeCol[row]]++;
+            }
+            return counts;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    // Grade counts for rows [from, to) added into counts[slot * grades + grade], where slot
+    // is the caller's position for each course code (courses not listed are skipped).
+    // Range-based so callers can split one pass over the columns across threads.
+    public void addCourseDistributions(int from, int to, String[] courseCodes, long[] counts) {
+        lock.readLock().lock();
+        try {
+            int[] slots = slotsFor(courseCodes);
+            int end = Math.min(to, rows);
+            for (int row = from; row < end; row++) {
+                int course = courseCol[row];
+                if (course == NONE || course >= slots.length) continue;
+                int slot = slots[course];
+                if (slot >= 0) counts[slot * GRADES.length + gradeCol[row]]++;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    // Course code ID -> position in codes, or -1
+    private static int[] slotsFor(String[] codes) {
+        int[] slots = new int[Symbols.COURSE_CODES.size()];
+        Arrays.fill(slots, -1);
+        for (int i = 0; i < codes.length; i++) {
+            int course = Symbols.COURSE_CODES.idOf(codes[i]);
+            if (course != SymbolTable.NOT_FOUND && course < slots.length) slots[course] = i;
+        }
+        return slots;
+    }
+    
+    private int firstRowOf(String studentId) {
+        Integer student = studentIds.get(studentId);
+        return student == null ? NONE : firstRow[student];
+    }
+    
+    private int credits(int row) {
+        return creditCol[row] & 0xFF;
+    }
+    
+    // --- Ownership ---
+    
+    // Moves the student's grades into the store; called when the student is added
+    public void adopt(Student student) {
+        int id;
+        lock.writeLock().lock();
+        try {
+            id = idFor(student.getId());
+        } finally {
+            lock.writeLock().unlock();
+        }
+        student.moveGradesTo(new StudentTranscript(id));
+    }
+    
+    // Drops every row. The given students, which are being removed with it, take their
+    // grades back first so anyone still holding one sees an intact transcript.
+    public void clear(Collection<Student> owners) {
+        for (Student student : owners) {
+            student.detachGrades();
+        }
+        lock.writeLock().lock();
+        try {
+            rows = 0;
+            studentIds.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    // --- Maintenance (caller holds the write lock) ---
+    
+    private int idFor(String studentId) {
+        Integer id = studentIds.get(studentId);
+        if (id != null) {
+            return id;
+        }
+        id = studentIds.size();
+        studentIds.put(studentId, id);
+        if (id == firstRow.length) {
+            firstRow = Arrays.copyOf(firstRow, id * 2);
+            lastRow = Arrays.copyOf(lastRow, id * 2);
+            gradeCount = Arrays.copyOf(gradeCount, id * 2);
+            pointSum = Arrays.copyOf(pointSum, id * 2);
+            creditSum = Arrays.copyOf(creditSum, id * 2);
+        }
+        firstRow[id] = NONE;
+        lastRow[id] = NONE;
+        gradeCount[id] = 0;
+        pointSum[id] = 0;
+        creditSum[id] = 0;
+        return id;
+    }
+    
+    private void append(int id, GradeEntry entry) {
+        Transcript.checkCredits(entry);
+        if (rows == studentCol.length) {
+            growColumns(rows * 2);
+        }
+        
+        int row = rows++;
+        studentCol[row] = id;
+        courseCol[row] = entry.isAttributed() ? entry.getCourseId() : NONE;
+        semesterCol[row] = (byte) (entry.getSemester() == null ? NONE : entry.getSemester().ordinal());
+        gradeCol[row] = (byte) entry.getGrade().ordinal();
+        creditCol[row] = (byte) entry.getWeight();
+        nextCol[row] = NONE;
+        int last = lastRow[id];
+        if (last == NONE) {
+            firstRow[id] = row;
+        } else {
+            nextCol[last] = row;
+        }
+        lastRow[id] = row;
+        gradeCount[id]++;
+        total(id, row, 1);
+    }
+    
+    // Adds (sign 1) or takes away (sign -1) a row's grade in its student's running totals
+    private void total(int id, int row, int sign) {
+        pointSum[id] += sign * GRADES[gradeCol[row]].getGradePoint() * credits(row);
+        creditSum[id] += sign * credits(row);
+    }
+    
+    private void growColumns(int capacity) {
+        studentCol = Arrays.copyOf(studentCol, capacity);
+        courseCol = Arrays.copyOf(courseCol, capacity);
+        semesterCol = Arrays.copyOf(semesterCol, capacity);
+        gradeCol = Arrays.copyOf(gradeCol, capacity);
+        creditCol = Arrays.copyOf(creditCol, capacity);
+        nextCol = Arrays.copyOf(nextCol, capacity);
+    }
+    
+    private GradeEntry entryAt(int row) {
+        int course = courseCol[row];
+        Grade grade = GRADES[gradeCol[row]];
+        return course == NONE
+            ? GradeEntry.unattributed(grade)
+            : GradeEntry.ofIds(grade, course, SEMESTERS[semesterCol[row]], credits(row));
+    }
+    
+    // The row holding a student's grade at the given position in their grade list
+    private int rowAt(int id, int index) {
+        int row = firstRow[id];
+        for (int i = Objects.checkIndex(index, gradeCount[id]); i > 0; i--) {
+            row = nextCol[row];
+        }
+        return row;
+    }
+    
+    // One student's grades, as seen through their Student once it has been adopted
+    private final class StudentTranscript implements Transcript {
+        private final int id;
+        
+        StudentTranscript(int id) {
+            this.id = id;
+        }
+        
+        @Override
+        public List<GradeEntry> entries() {
+            lock.readLock().lock();
+            try {
+                List<GradeEntry> entries = new ArrayList<>(gradeCount[id]);
+                for (int row = firstRow[id]; row != NONE; row = nextCol[row]) {
+                    entries.add(entryAt(row));
+                }
+                return Collections.unmodifiableList(entries);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+        
+        @Override
+        public GradeEntry last() {
+            lock.readLock().lock();
+            try {
+                return lastRow[id] == NONE ? null : entryAt(lastRow[id]);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+        
+        @Override
+        public int size() {
+            lock.readLock().lock();
+            try {
+                return gradeCount[id];
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+        
+        @Override
+        public double gpa() {
+            lock.readLock().lock();
+            try {
+                return creditSum[id] == 0 ? 0.0 : pointSum[id] / creditSum[id];
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+        
+        @Override
+        public void add(GradeEntry entry) {
+            lock.writeLock().lock();
+            try {
+                append(id, entry);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        
+        @Override
+        public GradeEntry correct(int index, Grade grade) {
+            lock.writeLock().lock();
+            try {
+                int row = rowAt(id, index);
+                GradeEntry previous = entryAt(row);
+                total(id, row, -1);
+                gradeCol[row] = (byte) grade.ordinal();
+                total(id, row, 1);
+                return previous;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        
+        @Override
+        public GradeEntry remove(int index) {
+            lock.writeLock().lock();
+            try {
+                Objects.checkIndex(index, gradeCount[id]);
+                int before = NONE;
+                int row = firstRow[id];
+                for (int i = 0; i < index; i++) {
+                    before = row;
+                    row = nextCol[row];
+                }
+                GradeEntry removed = entryAt(row);
+                int after = nextCol[row];
+                if (before == NONE) {
+                    firstRow[id] = after;
+                } else {
+                    nextCol[before] = after;
+                }
+                if (lastRow[id] == row) {
+                    lastRow[id] = before;
+                }
+                gradeCount[id]--;
+                total(id, row, -1);
+                courseCol[row] = NONE; // Dead row: course scans skip unattributed rows
+                return removed;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+}
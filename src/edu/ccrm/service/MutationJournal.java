@@ -0,0 +1,30 @@
+package edu.ccrm.service;
+
+import edu.ccrm.domain.*;
+
+// Write-ahead hook for StudentService and CourseService. Each call describes a change
+// that has been validated but not applied yet, under the same lock the change then runs
+// under, so the journal sees a student's changes in order and its grades as the change
+// finds them. Throwing vetoes the change: nothing reaches memory that the journal did
+// not take. commit() runs with the listeners' commits, after the lock is released.
+public interface MutationJournal {
+    MutationJournal NONE = new MutationJournal() {};
+    
+    default void addStudent(Student student) {}
+    default void updateStudent(Student student, String email) {}
+    default void changeStatus(Student student, StudentStatus status) {}
+    default void enroll(Student student, String courseCode, int credits) {}
+    default void unenroll(Student student, String courseCode, int credits) {}
+    default void recordGrade(Student student, GradeEntry entry) {}
+    default void correctGrade(Student student, int index, Grade grade) {}
+    default void removeGrade(Student student, int index) {}
+    default void clearStudents() {}
+    
+    default void addCourse(Course course) {}
+    default void updateCourse(Course course, String instructor) {}
+    default void deactivateCourse(Course course) {}
+    default void clearCourses() {}
+    
+    // Blocks until the journaled changes are durable
+    default void commit() {}
+}
@@ -0,0 +1,27 @@
+package edu.ccrm.service;
+
+import edu.ccrm.domain.*;
+
+// Observer for every change made through StudentService and CourseService.
+// Events fire after the change has been applied; commit() is called once the
+// service operation that produced them is complete.
+public interface MutationListener {
+    default void studentAdded(Student student) {}
+    default void studentUpdated(Student student) {}
+    default void statusChanged(Student student, StudentStatus previous) {}
+    default void enrolled(Student student, String courseCode, int credits) {}
+    default void unenrolled(Student student, String courseCode, int credits) {}
+    default void gradeRecorded(Student student, GradeEntry entry) {}
+    // index is the grade's position in the student's grade list; after a removal later grades have moved up
+    default void gradeCorrected(Student student, int index, GradeEntry previous) {}
+    default void gradeRemoved(Student student, int index, GradeEntry removed) {}
+    default void studentsCleared() {}
+    
+    default void courseAdded(Course course) {}
+    default void courseUpdated(Course course, String previousInstructor) {}
+    default void courseDeactivated(Course course) {}
+    default void coursesCleared() {}
+    
+    // Durable listeners block here until the operation's events are persisted
+    default void commit() {}
+}
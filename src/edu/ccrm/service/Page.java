@@ -0,0 +1,50 @@
+package edu.ccrm.service;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+// One page of a keyset-paginated listing, in ID order. Pass getNextKey() back as the
+// afterId of the next page() call; pages resume after that ID rather than at an offset,
+// so records added or removed meanwhile never shift or repeat what is returned.
+public class Page<T> {
+    private final List<T> items;
+    private final String nextKey;
+    
+    public Page(List<T> items, String nextKey) {
+        this.items = Collections.unmodifiableList(items);
+        this.nextKey = nextKey;
+    }
+    
+    // Up to size matching records with IDs after afterId (null starts at the beginning),
+    // read lazily from an ID-ordered map - only the page itself is collected
+    public static <T> Page<T> of(NavigableMap<String, T> byId, String afterId, int size, Predicate<T> filter) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Page size must be positive: " + size);
+        }
+        Map<String, T> tail = afterId == null ? byId : byId.tailMap(afterId, false);
+        List<T> items = new ArrayList<>(Math.min(size, 64));
+        String last = null;
+        for (Map.Entry<String, T> entry : tail.entrySet()) {
+            if (!filter.test(entry.getValue())) continue;
+            if (items.size() == size) {
+                return new Page<>(items, last); // Another match exists, so there is a next page
+            }
+            items.add(entry.getValue());
+            last = entry.getKey();
+        }
+        return new Page<>(items, null);
+    }
+    
+    public List<T> getItems() { return items; }
+    public int size() { return items.size(); }
+    public boolean isEmpty() { return items.isEmpty(); }
+    
+    // ID of the last record on this page, or null if this is the last page
+    public String getNextKey() { return nextKey; }
+    public boolean hasNext() { return nextKey != null; }
+    
+    @Override
+    public String toString() {
+        return items.size() + " records" + (hasNext() ? ", more after " + nextKey : ", last page");
+    }
+}
@@ -1,11 +1,11 @@
-package edu.ccrm.service;
-
-public interface Persistable {
-    void save() throws Exception;
-    void load() throws Exception;
-    
-    // Default method for diamond problem resolution
-    default String getLastModified() {
-        return "Unknown";
-    }
-}
\ No newline at end of file
+package edu.ccrm.service;
+
+public interface Persistable {
+    void save() throws Exception;
+    void load() throws Exception;
+    
+    // Default method for diamond problem resolution
+    default String getLastModified() {
+        return "Unknown";
+    }
+}
@@ -0,0 +1,191 @@
+package edu.ccrm.service;
+
+import java.util.*;
+
+// Structured alternative to search(Predicate): field conditions combined with AND/OR,
+// plus an optional sort and limit. Unlike a lambda, the conditions can be inspected,
+// so a service can answer them from its indexes (see QueryPlanner).
+//
+//   Query<Student> q = new Query.Builder<Student>(Query.and(
+//           Query.eq(StudentField.STATUS, StudentStatus.ACTIVE),
+//           Query.range(StudentField.GPA, 8.0, null)))
+//       .sortBy(Comparators.BY_GPA)
+//       .limit(20)
+//       .build();
+public class Query<T> {
+    private final Condition<T> condition;
+    private final Comparator<T> sort;
+    private final int limit;
+    
+    private Query(Builder<T> builder) {
+        this.condition = builder.condition;
+        this.sort = builder.sort;
+        this.limit = builder.limit;
+    }
+    
+    public static class Builder<T> {
+        private final Condition<T> condition;
+        private Comparator<T> sort;
+        private int limit = Integer.MAX_VALUE;
+        
+        public Builder(Condition<T> condition) {
+            this.condition = condition;
+        }
+        
+        public Builder<T> sortBy(Comparator<T> sort) {
+            this.sort = sort;
+            return this;
+        }
+        
+        public Builder<T> limit(int limit) {
+            this.limit = limit;
+            return this;
+        }
+        
+        public Query<T> build() {
+            return new Query<>(this);
+        }
+    }
+    
+    public Condition<T> getCondition() { return condition; }
+    public Comparator<T> getSort() { return sort; }
+    public int getLimit() { return limit; }
+    
+    // --- Conditions ---
+    
+    public static <T> Condition<T> eq(QueryField<T> field, Comparable<?> value) {
+        return new Equals<>(field, value);
+    }
+    
+    // Inclusive on both ends; a null bound leaves that side open
+    public static <T> Condition<T> range(QueryField<T> field, Comparable<?> min, Comparable<?> max) {
+        return new Range<>(field, min, max);
+    }
+    
+    @SafeVarargs
+    public static <T> Condition<T> and(Condition<T>... conditions) {
+        List<Condition<T>> parts = new ArrayList<>(conditions.length);
+        for (Condition<T> condition : conditions) parts.add(condition);
+        return new And<>(parts);
+    }
+    
+    @SafeVarargs
+    public static <T> Condition<T> or(Condition<T>... conditions) {
+        List<Condition<T>> parts = new ArrayList<>(conditions.length);
+        for (Condition<T> condition : conditions) parts.add(condition);
+        return new Or<>(parts);
+    }
+    
+    public static <T> Condition<T> all() {
+        return new And<>(List.of());
+    }
+    
+    public abstract static class Condition<T> {
+        public abstract boolean test(T record);
+    }
+    
+    public static final class Equals<T> extends Condition<T> {
+        private final QueryField<T> field;
+        private final Comparable<?> value;
+        
+        Equals(QueryField<T> field, Comparable<?> value) {
+            this.field = field;
+            this.value = field.normalize(value);
+        }
+        
+        public QueryField<T> getField() { return field; }
+        public Comparable<?> getValue() { return value; }
+        
+        @Override
+        public boolean test(T record) {
+            return value.equals(field.valueOf(record));
+        }
+        
+        @Override
+        public String toString() {
+            return field.name() + " = " + value;
+        }
+    }
+    
+    public static final class Range<T> extends Condition<T> {
+        private final QueryField<T> field;
+        private final Comparable<?> min;
+        private final Comparable<?> max;
+        
+        Range(QueryField<T> field, Comparable<?> min, Comparable<?> max) {
+            this.field = field;
+            this.min = min == null ? null : field.normalize(min);
+            this.max = max == null ? null : field.normalize(max);
+        }
+        
+        public QueryField<T> getField() { return field; }
+        public Comparable<?> getMin() { return min; }
+        public Comparable<?> getMax() { return max; }
+        
+        @Override
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        public boolean test(T record) {
+            Comparable value = field.valueOf(record);
+            return (min == null || value.compareTo(min) >= 0) && (max == null || value.compareTo(max) <= 0);
+        }
+        
+        @Override
+        public String toString() {
+            return field.name() + " in [" + (min == null ? "-inf" : min) + ", " + (max == null ? "+inf" : max) + "]";
+        }
+    }
+    
+    public static final class And<T> extends Condition<T> {
+        private final List<Condition<T>> conditions;
+        
+        And(List<Condition<T>> conditions) {
+            this.conditions = conditions;
+        }
+        
+        public List<Condition<T>> getConditions() { return conditions; }
+        
+        @Override
+        public boolean test(T record) {
+            for (Condition<T> condition : conditions) {
+                if (!condition.test(record)) return false;
+            }
+            return true;
+        }
+        
+        @Override
+        public String toString() {
+            return conditions.isEmpty() ? "TRUE" : join(conditions, " AND ");
+        }
+    }
+    
+    public static final class Or<T> extends Condition<T> {
+        private final List<Condition<T>> conditions;
+        
+        Or(List<Condition<T>> conditions) {
+            this.conditions = conditions;
+        }
+        
+        public List<Condition<T>> getConditions() { return conditions; }
+        
+        @Override
+        public boolean test(T record) {
+            for (Condition<T> condition : conditions) {
+                if (condition.test(record)) return true;
+            }
+            return false;
+        }
+        
+        @Override
+        public String toString() {
+            return conditions.isEmpty() ? "FALSE" : join(conditions, " OR ");
+        }
+    }
+    
+    private static <T> String join(List<Condition<T>> conditions, String operator) {
+        StringJoiner text = new StringJoiner(operator, "(", ")");
+        for (Condition<T> condition : conditions) {
+            text.add(condition.toString());
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,20 @@
+package edu.ccrm.service;
+
+import java.util.Locale;
+
+// A queryable attribute of T. Values are normalized the same way the service
+// indexes normalize their keys, so a condition tests exactly what an index returns.
+public interface QueryField<T> {
+    String name();
+    
+    Comparable<?> valueOf(T record);
+    
+    // Brings a query argument into the same form as valueOf()
+    default Comparable<?> normalize(Comparable<?> value) {
+        return value;
+    }
+    
+    static String fold(Object value) {
+        return value == null ? "" : value.toString().trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,132 @@
+package edu.ccrm.service;
+
+import java.util.*;
+import java.util.function.Supplier;
+
+// Picks an access path for a Query from the indexes a service exposes:
+//  - a field condition uses its index if one exists
+//  - AND uses its most selective indexed branch; the rest are checked as filters
+//  - OR needs every branch indexed and unions them
+// Anything else - or an index that would return most of the data - falls back to a scan.
+// The full condition is always re-checked on the candidates, so plans only affect speed.
+public class QueryPlanner<T> {
+    
+    // What a service can answer from its indexes. Return null where a field has no index.
+    public interface Indexes<T> {
+        default Access<T> equalTo(QueryField<T> field, Comparable<?> value) { return null; }
+        
+        default Access<T> range(QueryField<T> field, Comparable<?> min, Comparable<?> max) { return null; }
+        
+        int size();
+        
+        Collection<T> all();
+    }
+    
+    // One candidate access path: its estimated row count and how to fetch the rows
+    public static class Access<T> {
+        private final String description;
+        private final int estimate;
+        private final Supplier<Collection<T>> rows;
+        
+        public Access(String description, int estimate, Supplier<Collection<T>> rows) {
+            this.description = description;
+            this.estimate = estimate;
+            this.rows = rows;
+        }
+    }
+    
+    private final Indexes<T> indexes;
+    
+    public QueryPlanner(Indexes<T> indexes) {
+        this.indexes = indexes;
+    }
+    
+    // Planner with no indexes at all - every query is a scan of the given records
+    public static <T> QueryPlanner<T> scanning(Collection<T> records) {
+        return new QueryPlanner<>(new Indexes<T>() {
+            @Override public int size() { return records.size(); }
+            @Override public Collection<T> all() { return records; }
+        });
+    }
+    
+    public QueryResult<T> execute(Query<T> query) {
+        Query.Condition<T> condition = query.getCondition();
+        Access<T> access = plan(condition);
+        int size = indexes.size();
+        
+        Collection<T> candidates;
+        String plan;
+        if (access == null || access.estimate >= size) {
+            candidates = indexes.all();
+            plan = "SCAN (" + size + " rows)";
+        } else {
+            candidates = access.rows.get();
+            plan = access.description;
+        }
+        if (!(condition instanceof Query.And && ((Query.And<T>) condition).getConditions().isEmpty())) {
+            plan += " -> FILTER " + condition;
+        }
+        
+        // Without a sort the limit can stop the filter early
+        boolean stopEarly = query.getSort() == null;
+        List<T> results = new ArrayList<>();
+        int examined = 0;
+        for (T record : candidates) {
+            examined++;
+            if (condition.test(record)) {
+                results.add(record);
+                if (stopEarly && results.size() >= query.getLimit()) break;
+            }
+        }
+        if (query.getSort() != null) {
+            results.sort(query.getSort());
+            plan += " -> SORT";
+        }
+        if (results.size() > query.getLimit()) {
+            results = new ArrayList<>(results.subList(0, query.getLimit()));
+        }
+        if (query.getLimit() != Integer.MAX_VALUE) {
+            plan += " -> LIMIT " + query.getLimit();
+        }
+        return new QueryResult<>(results, plan, examined);
+    }
+    
+    private Access<T> plan(Query.Condition<T> condition) {
+        if (condition instanceof Query.Equals) {
+            Query.Equals<T> equals = (Query.Equals<T>) condition;
+            return indexes.equalTo(equals.getField(), equals.getValue());
+        }
+        if (condition instanceof Query.Range) {
+            Query.Range<T> range = (Query.Range<T>) condition;
+            return indexes.range(range.getField(), range.getMin(), range.getMax());
+        }
+        if (condition instanceof Query.And) {
+            Access<T> best = null;
+            for (Query.Condition<T> part : ((Query.And<T>) condition).getConditions()) {
+                Access<T> access = plan(part);
+                if (access != null && (best == null || access.estimate < best.estimate)) {
+                    best = access;
+                }
+            }
+            return best;
+        }
+        if (condition instanceof Query.Or) {
+            List<Access<T>> branches = new ArrayList<>();
+            int estimate = 0;
+            for (Query.Condition<T> part : ((Query.Or<T>) condition).getConditions()) {
+                Access<T> access = plan(part);
+                if (access == null) return null; // One unindexed branch means reading everything anyway
+                branches.add(access);
+                estimate += access.estimate;
+            }
+            StringJoiner description = new StringJoiner(", ", "UNION(", ")");
+            for (Access<T> branch : branches) description.add(branch.description);
+            return new Access<>(description.toString(), estimate, () -> {
+                Set<T> union = new LinkedHashSet<>();
+                for (Access<T> branch : branches) union.addAll(branch.rows.get());
+                return union;
+            });
+        }
+        return null;
+    }
+}
@@ -0,0 +1,26 @@
+package edu.ccrm.service;
+
+import java.util.List;
+
+// Rows returned by a Query, with the plan that produced them and how many
+// candidate rows had to be examined
+public class QueryResult<T> {
+    private final List<T> results;
+    private final String plan;
+    private final int examined;
+    
+    public QueryResult(List<T> results, String plan, int examined) {
+        this.results = results;
+        this.plan = plan;
+        this.examined = examined;
+    }
+    
+    public List<T> getResults() { return results; }
+    public String getPlan() { return plan; }
+    public int getExamined() { return examined; }
+    
+    @Override
+    public String toString() {
+        return results.size() + " rows, " + examined + " examined: " + plan;
+    }
+}
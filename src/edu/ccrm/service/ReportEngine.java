@@ -0,0 +1,270 @@
+package edu.ccrm.service;
+
+import edu.ccrm.domain.*;
+import edu.ccrm.util.ChunkSpliterator;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// Reports that cannot be kept incrementally, computed in parallel. The records are
+// snapshotted into an array, split by ChunkSpliterator into fork-join leaves, and each
+// leaf accumulates into flat primitive arrays indexed by Grade / Semester ordinal (and a
+// dense department or course number), which are then summed pairwise. No boxed maps or
+// groupingBy collectors sit on the hot path. Grade reports split the GradeStore's
+// columns into row ranges the same way.
+//
+// Reads run against live service maps, so take reports while no mutations are running.
+public class ReportEngine {
+    private static final int MIN_CHUNK = 4096;
+    private static final int MIN_ROW_CHUNK = 64 * 1024; // Grade rows are a few bytes each
+    private static final int GPA_SCALE = 100; // GPA histogram resolution: 0.01
+    private static final int GPA_BUCKETS = 10 * GPA_SCALE + 1;
+    private static final Grade[] GRADES = Grade.values();
+    private static final Semester[] SEMESTERS = Semester.values();
+    
+    private final StudentService studentService;
+    private final CourseService courseService;
+    private final ForkJoinPool pool;
+    
+    public ReportEngine(StudentService studentService, CourseService courseService) {
+        this(studentService, courseService, ForkJoinPool.commonPool());
+    }
+    
+    public ReportEngine(StudentService studentService, CourseService courseService, ForkJoinPool pool) {
+        this.studentService = studentService;
+        this.courseService = courseService;
+        this.pool = pool;
+    }
+    
+    // --- GPA percentiles ---
+    
+    public static class GpaPercentiles {
+        private final long[] histogram;
+        private final long count;
+        
+        GpaPercentiles(long[] histogram) {
+            this.histogram = histogram;
+            long total = 0;
+            for (long bucket : histogram) total += bucket;
+            this.count = total;
+        }
+        
+        public long getCount() { return count; }
+        
+        // Nearest-rank percentile (0-100] over students with grades, to 0.01 GPA
+        public double percentile(double p) {
+            if (count == 0) return 0.0;
+            long rank = Math.max(1, (long) Math.ceil(p / 100.0 * count));
+            long seen = 0;
+            for (int bucket = 0; bucket < histogram.length; bucket++) {
+                seen += histogram[bucket];
+                if (seen >= rank) return (double) bucket / GPA_SCALE;
+            }
+            return (double) (histogram.length - 1) / GPA_SCALE;
+        }
+    }
+    
+    public GpaPercentiles gpaPercentiles() {
+        long[] histogram = run(studentService.findAll().toArray(new Student[0]), new Accumulator<Student, long[]>() {
+            @Override public long[] create() { return new long[GPA_BUCKETS]; }
+            @Override public void accept(long[] acc, Student s) {
+                if (s.hasGrades()) acc[(int) Math.round(s.calculateGPA() * GPA_SCALE)]++;
+            }
+            @Override public void merge(long[] into, long[] other) { addInto(into, other); }
+        });
+        return new GpaPercentiles(histogram);
+    }
+    
+    // --- Department x semester enrolled credits ---
+    
+    public static class CreditMatrix {
+        private final String[] departments;
+        private final long[] credits; // [department * semesters + semester]
+        
+        CreditMatrix(String[] departments, long[] credits) {
+            this.departments = departments;
+            this.credits = credits;
+        }
+        
+        public List<String> getDepartments() { return List.of(departments); }
+        
+        public long getCredits(int department, Semester semester) {
+            return credits[department * SEMESTERS.length + semester.ordinal()];
+        }
+    }
+    
+    // Enrolled credit load: every enrollment adds its course's credits to the course's
+    // department and semester
+    public CreditMatrix creditMatrix() {
+        CourseTable table = new CourseTable(courseService.findAll());
+        int cells = table.departments.size() * SEMESTERS.length;
+        long[] credits = run(studentService.findAll().toArray(new Student[0]), new Accumulator<Student, long[]>() {
+            @Override public long[] create() { return new long[cells]; }
+            @Override public void accept(long[] acc, Student s) {
+                s.forEachEnrolledCourseId(id -> {
+                    int course = table.indexOf(id);
+                    if (course >= 0) {
+                        acc[table.department[course] * SEMESTERS.length + table.semester[course]] += table.credits[course];
+                    }
+                });
+            }
+            @Override public void merge(long[] into, long[] other) { addInto(into, other); }
+        });
+        return new CreditMatrix(table.departments.toArray(new String[0]), credits);
+    }
+    
+    // --- Grade histograms per course ---
+    
+    public static class GradeHistograms {
+        private final String[] courses;
+        private final long[] counts; // [course * grades + grade]
+        
+        GradeHistograms(String[] courses, long[] counts) {
+            this.courses = courses;
+            this.counts = counts;
+        }
+        
+        public List<String> getCourses() { return List.of(courses); }
+        
+        public long getCount(int course, Grade grade) {
+            return counts[course * GRADES.length + grade.ordinal()];
+        }
+    }
+    
+    // Every grade recorded against each catalog course, counted straight off the grade
+    // store's course and grade columns. Grades not tied to a course are not counted.
+    public GradeHistograms gradeHistograms() {
+        CourseTable table = new CourseTable(courseService.findAll());
+        GradeStore store = studentService.getGradeStore();
+        int cells = table.codes.length * GRADES.length;
+        long[] counts = pool.invoke(new RowRangeTask(0, store.size(), (from, to) -> {
+            long[] acc = new long[cells];
+            store.addCourseDistributions(from, to, table.codes, acc);
+            return acc;
+        }));
+        return new GradeHistograms(table.codes, counts);
+    }
+    
+    // --- Fork-join plumbing ---
+    
+    // Per-leaf accumulation into a mutable container; leaves are merged pairwise
+    private interface Accumulator<T, A> {
+        A create();
+        
+        void accept(A acc, T item);
+        
+        void merge(A into, A other);
+    }
+    
+    private <T, A> A run(T[] items, Accumulator<T, A> accumulator) {
+        return pool.invoke(new ReportTask<>(new ChunkSpliterator<>(items, MIN_CHUNK), accumulator));
+    }
+    
+    @SuppressWarnings("serial") // Fork-join tasks are never serialized
+    private static class ReportTask<T, A> extends RecursiveTask<A> {
+        private final Spliterator<T> spliterator;
+        private final Accumulator<T, A> accumulator;
+        
+        ReportTask(Spliterator<T> spliterator, Accumulator<T, A> accumulator) {
+            this.spliterator = spliterator;
+            this.accumulator = accumulator;
+        }
+        
+        @Override
+        protected A compute() {
+            Spliterator<T> prefix = spliterator.trySplit();
+            if (prefix == null) {
+                A acc = accumulator.create();
+                spliterator.forEachRemaining(item -> accumulator.accept(acc, item));
+                return acc;
+            }
+            ReportTask<T, A> left = new ReportTask<>(prefix, accumulator);
+            left.fork();
+            A right = new ReportTask<>(spliterator, accumulator).compute();
+            A result = left.join();
+            accumulator.merge(result, right);
+            return result;
+        }
+    }
+    
+    // Accumulates rows [from, to) of a columnar store into a fresh array
+    private interface RowRange {
+        long[] accumulate(int from, int to);
+    }
+    
+    @SuppressWarnings("serial") // Fork-join tasks are never serialized
+    private static class RowRangeTask extends RecursiveTask<long[]> {
+        private final int from;
+        private final int to;
+        private final RowRange range;
+        
+        RowRangeTask(int from, int to, RowRange range) {
+            this.from = from;
+            this.to = to;
+            this.range = range;
+        }
+        
+        @Override
+        protected long[] compute() {
+            if (to - from <= MIN_ROW_CHUNK) {
+                return range.accumulate(from, to);
+            }
+            int mid = (from + to) >>> 1;
+            RowRangeTask left = new RowRangeTask(from, mid, range);
+            left.fork();
+            long[] right = new RowRangeTask(mid, to, range).compute();
+            long[] result = left.join();
+            addInto(result, right);
+            return result;
+        }
+    }
+    
+    private static void addInto(long[] into, long[] other) {
+        for (int i = 0; i < into.length; i++) {
+            into[i] += other[i];
+        }
+    }
+    
+    // Catalog flattened into parallel arrays, built once per report and only read by the leaves
+    private static class CourseTable {
+        final String[] codes;
+        final int[] department;
+        final int[] semester;
+        final int[] credits;
+        final List<String> departments = new ArrayList<>();
+        private final int[] codeIndex; // Course code ID -> position, or -1
+        
+        CourseTable(List<Course> courses) {
+            int n = courses.size();
+            codes = new String[n];
+            department = new int[n];
+            semester = new int[n];
+            credits = new int[n];
+            codeIndex = new int[Symbols.COURSE_CODES.size()];
+            Arrays.fill(codeIndex, -1);
+            Map<String, Integer> departmentIndex = new HashMap<>();
+            
+            courses.sort(Comparator.comparing(Course::getCode));
+            for (int i = 0; i < n; i++) {
+                Course course = courses.get(i);
+                codes[i] = course.getCode();
+                codeIndex[course.getCodeId()] = i;
+                String key = QueryField.fold(course.getDepartment());
+                Integer d = departmentIndex.get(key);
+                if (d == null) {
+                    d = departments.size();
+                    departmentIndex.put(key, d);
+                    departments.add(course.getDepartment());
+                }
+                department[i] = d;
+                semester[i] = course.getSemester().ordinal();
+                credits[i] = course.getCredits();
+            }
+        }
+        
+        int indexOf(int codeId) {
+            return codeId < codeIndex.length ? codeIndex[codeId] : -1;
+        }
+    }
+}
@@ -1,15 +1,33 @@
-package edu.ccrm.service;
-
-import java.util.List;
-import java.util.function.Predicate;
-
-public interface Searchable<T> {
-    List<T> search(Predicate<T> criteria);
-    List<T> findAll();
-    T findById(String id);
-    
-    // Default method
-    default long count() {
-        return findAll().size();
-    }
-}
\ No newline at end of file
+package edu.ccrm.service;
+
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+public interface Searchable<T> {
+    List<T> search(Predicate<T> criteria);
+    List<T> findAll();
+    T findById(String id);
+    
+    // Every record in ID order, read lazily - prefer this to findAll() for listings,
+    // which copies the whole collection before the first record can be used
+    Stream<T> stream();
+    
+    // Keyset pagination in the same order as stream(): up to size matching records with
+    // IDs after afterId. Start with null, then pass the previous page's getNextKey().
+    Page<T> page(String afterId, int size, Predicate<T> criteria);
+    
+    default Page<T> page(String afterId, int size) {
+        return page(afterId, size, record -> true);
+    }
+    
+    // Structured query; implementations with indexes plan it, this default scans
+    default QueryResult<T> query(Query<T> query) {
+        return QueryPlanner.scanning(findAll()).execute(query);
+    }
+    
+    // Default method - implementations holding a collection should return its size directly
+    default long count() {
+        return findAll().size();
+    }
+}
@@ -0,0 +1,134 @@
+package edu.ccrm.service;
+
+import edu.ccrm.domain.*;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+// Report aggregates kept current from MutationListener events instead of recomputed
+// from findAll() copies: counts by status and semester, GPA band histogram, and running
+// sums behind the average GPA and credit figures. Each record's last contribution is
+// remembered, so a change subtracts the old values and adds the new ones.
+//
+// Register with both services before any data is loaded. Snapshots are taken under
+// the same lock the events update under, so a report never sees a half-applied change.
+public class StatisticsEngine implements MutationListener {
+    // What one student currently contributes to the aggregates
+    private static class StudentContribution {
+        final int status;
+        final int band;      // -1 while the student has no grades
+        final double gpa;
+        final double credits;
+        
+        StudentContribution(Student student) {
+            this.status = student.getStatus().ordinal();
+            this.band = student.hasGrades() ? Student.Statistics.gpaBand(student.calculateGPA()) : -1;
+            this.gpa = student.calculateGPA();
+            this.credits = student.getTotalCredits();
+        }
+    }
+    
+    private static class CourseContribution {
+        final int semester;
+        final int credits;
+        final boolean active;
+        
+        CourseContribution(Course course) {
+            this.semester = course.getSemester().ordinal();
+            this.credits = course.getCredits();
+            this.active = course.isActive();
+        }
+    }
+    
+    private final Map<String, StudentContribution> students = new HashMap<>();
+    private final int[] statusCounts = new int[StudentStatus.values().length];
+    private final int[] gpaBandCounts = new int[Student.Statistics.GPA_BANDS.length];
+    private int gradedStudents;
+    private double gpaSum;
+    private double studentCreditSum;
+    
+    private final Map<String, CourseContribution> courses = new HashMap<>();
+    private final int[] semesterCounts = new int[Semester.values().length];
+    private int activeCourses;
+    private long courseCreditSum;
+    
+    public synchronized Student.Statistics getStudentStatistics() {
+        int total = students.size();
+        return new Student.Statistics(total, gradedStudents,
+            gradedStudents == 0 ? 0.0 : gpaSum / gradedStudents,
+            total == 0 ? 0.0 : studentCreditSum / total,
+            statusCounts, gpaBandCounts);
+    }
+    
+    public synchronized Course.Statistics getCourseStatistics() {
+        int total = courses.size();
+        return new Course.Statistics(total, activeCourses,
+            total == 0 ? 0.0 : (double) courseCreditSum / total, semesterCounts);
+    }
+    
+    // --- Students ---
+    
+    private synchronized void refresh(Student student) {
+        StudentContribution previous = students.get(student.getId());
+        if (previous != null) apply(previous, -1);
+        StudentContribution current = new StudentContribution(student);
+        students.put(student.getId(), current);
+        apply(current, 1);
+    }
+    
+    private void apply(StudentContribution c, int sign) {
+        statusCounts[c.status] += sign;
+        studentCreditSum += sign * c.credits;
+        if (c.band >= 0) {
+            gpaBandCounts[c.band] += sign;
+            gradedStudents += sign;
+            gpaSum += sign * c.gpa;
+        }
+    }
+    
+    @Override public void studentAdded(Student student) { refresh(student); }
+    @Override public void statusChanged(Student student, StudentStatus previous) { refresh(student); }
+    @Override public void enrolled(Student student, String courseCode, int credits) { refresh(student); }
+    @Override public void unenrolled(Student student, String courseCode, int credits) { refresh(student); }
+    @Override public void gradeRecorded(Student student, GradeEntry entry) { refresh(student); }
+    @Override public void gradeCorrected(Student student, int index, GradeEntry previous) { refresh(student); }
+    @Override public void gradeRemoved(Student student, int index, GradeEntry removed) { refresh(student); }
+    
+    @Override
+    public synchronized void studentsCleared() {
+        students.clear();
+        Arrays.fill(statusCounts, 0);
+        Arrays.fill(gpaBandCounts, 0);
+        gradedStudents = 0;
+        gpaSum = 0;
+        studentCreditSum = 0;
+    }
+    
+    // --- Courses ---
+    
+    private synchronized void refresh(Course course) {
+        CourseContribution previous = courses.get(course.getCode());
+        if (previous != null) apply(previous, -1);
+        CourseContribution current = new CourseContribution(course);
+        courses.put(course.getCode(), current);
+        apply(current, 1);
+    }
+    
+    private void apply(CourseContribution c, int sign) {
+        semesterCounts[c.semester] += sign;
+        courseCreditSum += sign * c.credits;
+        if (c.active) activeCourses += sign;
+    }
+    
+    @Override public void courseAdded(Course course) { refresh(course); }
+    @Override public void courseDeactivated(Course course) { refresh(course); }
+    
+    @Override
+    public synchronized void coursesCleared() {
+        courses.clear();
+        Arrays.fill(semesterCounts, 0);
+        activeCourses = 0;
+        courseCreditSum = 0;
+    }
+}
@@ -0,0 +1,24 @@
+package edu.ccrm.service;
+
+import edu.ccrm.domain.Student;
+
+public enum StudentField implements QueryField<Student> {
+    STATUS {
+        @Override public Comparable<?> valueOf(Student s) { return s.getStatus(); }
+    },
+    REG_NO {
+        @Override public Comparable<?> valueOf(Student s) { return s.getRegNo(); }
+    },
+    DEPARTMENT {
+        @Override public Comparable<?> valueOf(Student s) { return QueryField.fold(s.getDepartment()); }
+        @Override public Comparable<?> normalize(Comparable<?> value) { return QueryField.fold(value); }
+    },
+    GPA {
+        @Override public Comparable<?> valueOf(Student s) { return s.calculateGPA(); }
+        @Override public Comparable<?> normalize(Comparable<?> value) { return ((Number) value).doubleValue(); }
+    },
+    CREDITS {
+        @Override public Comparable<?> valueOf(Student s) { return s.getTotalCredits(); }
+        @Override public Comparable<?> normalize(Comparable<?> value) { return ((Number) value).doubleValue(); }
+    }
+}
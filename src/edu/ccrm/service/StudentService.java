@@ -1,76 +1,595 @@
-package edu.ccrm.service;
-import edu.ccrm.exception.DuplicateEnrollmentException;
-
-import edu.ccrm.domain.*;
-import java.util.*;
-import java.util.function.Predicate;
-import java.util.stream.Collectors;
-
-public class StudentService implements Searchable<Student>, Persistable {
-    private Map<String, Student> students;
-    
-    public StudentService() {
-        this.students = new HashMap<>();
-    }
-    
-    public void addStudent(Student student) throws DuplicateEnrollmentException {
-        if (students.containsKey(student.getId())) {
-            throw new DuplicateEnrollmentException("Student with ID " + student.getId() + " already exists");
-        }
-        students.put(student.getId(), student);
-    }
-    
-    public void updateStudent(String id, String email) {
-        Student student = students.get(id);
-        if (student != null) {
-            student.setEmail(email);
-        }
-    }
-    
-    public void deactivateStudent(String id) {
-        Student student = students.get(id);
-        if (student != null) {
-            student.setStatus(StudentStatus.INACTIVE);
-        }
-    }
-    
-    @Override
-    public List<Student> search(Predicate<Student> criteria) {
-        return students.values().stream()
-                .filter(criteria)
-                .collect(Collectors.toList());
-    }
-    
-    @Override
-    public List<Student> findAll() {
-        return new ArrayList<>(students.values());
-    }
-    
-    @Override
-    public Student findById(String id) {
-        return students.get(id);
-    }
-    
-    public List<Student> findByStatus(StudentStatus status) {
-        return search(s -> s.getStatus() == status);
-    }
-    
-    public List<Student> getTopStudentsByGPA(int limit) {
-        return students.values().stream()
-                .sorted((s1, s2) -> Double.compare(s2.calculateGPA(), s1.calculateGPA()))
-                .limit(limit)
-                .collect(Collectors.toList());
-    }
-    
-    @Override
-    public void save() throws Exception {
-        System.out.println("Saving students to file...");
-        // Implementation would write to file
-    }
-    
-    @Override
-    public void load() throws Exception {
-        System.out.println("Loading students from file...");
-        // Implementation would read from file
-    }
-}
\ No newline at end of file
+package edu.ccrm.service;
+import edu.ccrm.exception.DuplicateEnrollmentException;
+import edu.ccrm.exception.MaxCreditLimitExceededException;
+
+import edu.ccrm.config.AppConfig;
+import edu.ccrm.domain.*;
+import edu.ccrm.io.BinaryCodec;
+import edu.ccrm.io.CsvExporter;
+import edu.ccrm.io.CsvImporter;
+import edu.ccrm.io.MappedSnapshot;
+import edu.ccrm.io.ParallelCsvImporter;
+import edu.ccrm.io.SnapshotFormat;
+import edu.ccrm.util.MultiIndex;
+import edu.ccrm.util.StripedLocks;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Safe to share between request threads. Stores and indexes are concurrent maps, so
+// findById, search and the index lookups never lock. Mutations to one student run under
+// that student's stripe lock: check-then-act sequences (duplicate IDs, the enrollment
+// check) are atomic, and listeners see each student's events in the order they happened.
+// A journal, if set, takes each change before it is applied (see MutationJournal).
+// Listener commits run after the lock is released, so concurrent writers share fsyncs.
+public class StudentService implements Searchable<Student>, Persistable {
+    private static final int LOCK_STRIPES = 256;
+    
+    private final Map<String, Student> students = new ConcurrentHashMap<>();
+    private final List<MutationListener> listeners = new CopyOnWriteArrayList<>();
+    private volatile MutationJournal journal = MutationJournal.NONE;
+    // Set by openMapped until the table is loaded, with the listeners its records go to
+    private volatile MappedSnapshot.StudentTable mapped;
+    private List<MutationListener> mappedListeners;
+    private final StripedLocks locks = new StripedLocks(LOCK_STRIPES);
+    
+    // Secondary indexes, kept in step with every change made through this service
+    private final MultiIndex<StudentStatus, Student> byStatus = MultiIndex.forEnum(StudentStatus.class);
+    private final MultiIndex<String, Student> byDepartment = new MultiIndex<>(ConcurrentHashMap::new);
+    private final Map<String, Student> byRegNo = new ConcurrentHashMap<>();
+    private final ConcurrentNavigableMap<String, Student> byId = new ConcurrentSkipListMap<>(); // ID order for listings
+    private final GpaLeaderboard leaderboard = new GpaLeaderboard();
+    private final GpaIndex byGpa = new GpaIndex();
+    private final EnrollmentIndex enrollments = new EnrollmentIndex();
+    private final GradeStore grades = new GradeStore();
+    
+    private final QueryPlanner<Student> planner = new QueryPlanner<>(new QueryPlanner.Indexes<Student>() {
+        @Override
+        public QueryPlanner.Access<Student> equalTo(QueryField<Student> field, Comparable<?> value) {
+            if (field == StudentField.STATUS) {
+                StudentStatus status = (StudentStatus) value;
+                return new QueryPlanner.Access<>("INDEX status = " + status, byStatus.count(status),
+                    () -> byStatus.get(status));
+            }
+            if (field == StudentField.DEPARTMENT) {
+                String department = (String) value;
+                return new QueryPlanner.Access<>("INDEX department = " + department,
+                    byDepartment.count(department), () -> byDepartment.get(department));
+            }
+            if (field == StudentField.REG_NO) {
+                Student student = byRegNo.get(value);
+                List<Student> match = student == null ? List.of() : List.of(student);
+                return new QueryPlanner.Access<>("INDEX regNo = " + value, match.size(), () -> match);
+            }
+            if (field == StudentField.GPA) {
+                return range(field, value, value);
+            }
+            return null;
+        }
+        
+        @Override
+        public QueryPlanner.Access<Student> range(QueryField<Student> field, Comparable<?> min, Comparable<?> max) {
+            if (field != StudentField.GPA) return null;
+            Double from = (Double) min;
+            Double to = (Double) max;
+            return new QueryPlanner.Access<>("INDEX gpa in [" + (from == null ? "-inf" : from) + ", "
+                + (to == null ? "+inf" : to) + "]", byGpa.estimateRange(from, to), () -> byGpa.range(from, to));
+        }
+        
+        @Override public int size() { return students.size(); }
+        @Override public Collection<Student> all() { return students.values(); }
+    });
+    
+    public StudentService() {
+        this.listeners.add(leaderboard); // Maintained from the same events as every other listener
+        this.listeners.add(byGpa);
+        this.listeners.add(enrollments);
+    }
+    
+    public void addListener(MutationListener listener) {
+        listeners.add(listener);
+    }
+    
+    public void removeListener(MutationListener listener) {
+        listeners.remove(listener);
+    }
+    
+    // Set once loading and replay are done, so they are not journaled again; null for none
+    public void setJournal(MutationJournal journal) {
+        this.journal = journal == null ? MutationJournal.NONE : journal;
+    }
+    
+    private void fire(Consumer<MutationListener> event) {
+        fire(listeners, event);
+    }
+    
+    private static void fire(List<MutationListener> targets, Consumer<MutationListener> event) {
+        for (MutationListener listener : targets) {
+            event.accept(listener);
+        }
+    }
+    
+    private void commit() {
+        journal.commit();
+        for (MutationListener listener : listeners) {
+            listener.commit();
+        }
+    }
+    
+    public void addStudent(Student student) throws DuplicateEnrollmentException {
+        materialize();
+        String conflict = insert(student);
+        if (conflict != null) {
+            throw new DuplicateEnrollmentException("Student with " + conflict + " already exists");
+        }
+        commit();
+    }
+    
+    private String insert(Student student) {
+        return insert(student, journal, listeners);
+    }
+    
+    // Inserts, indexes and announces a new student. Returns null, or the taken key
+    // ("ID x" / "registration number x") if the ID or regNo already belongs to a student.
+    private String insert(Student student, MutationJournal journal, List<MutationListener> targets) {
+        ReentrantLock lock = locks.get(student.getId());
+        lock.lock();
+        try {
+            if (students.putIfAbsent(student.getId(), student) != null) {
+                return "ID " + student.getId();
+            }
+            // Registration numbers are unique too. Two IDs can sit on different stripes,
+            // so the regNo is claimed atomically in its own map.
+            if (byRegNo.putIfAbsent(student.getRegNo(), student) != null) {
+                students.remove(student.getId(), student);
+                return "registration number " + student.getRegNo();
+            }
+            try {
+                journal.addStudent(student);
+            } catch (RuntimeException e) {
+                byRegNo.remove(student.getRegNo(), student);
+                students.remove(student.getId(), student);
+                throw e;
+            }
+            grades.adopt(student);
+            index(student);
+            fire(targets, l -> l.studentAdded(student));
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    // Bulk-insert path for imports: each record costs a single putIfAbsent instead of
+    // containsKey + put, and listeners commit once for the whole batch. Duplicates are
+    // skipped and reported together once the rest of the batch is in.
+    public int bulkLoad(Stream<Student> source) throws DuplicateEnrollmentException {
+        materialize();
+        int added = 0;
+        List<String> duplicates = new ArrayList<>();
+        Iterator<Student> it = source.iterator();
+        while (it.hasNext()) {
+            Student student = it.next();
+            String conflict = insert(student);
+            if (conflict == null) {
+                added++;
+            } else {
+                duplicates.add(conflict);
+            }
+        }
+        commit(); // One commit for the whole batch
+        
+        if (!duplicates.isEmpty()) {
+            throw new DuplicateEnrollmentException(duplicates.size() == 1
+                ? "Student with " + duplicates.get(0) + " already exists"
+                : duplicates.size() + " students already exist (first: " + duplicates.get(0) + "); "
+                    + added + " new students loaded");
+        }
+        return added;
+    }
+    
+    private void index(Student student) {
+        byId.put(student.getId(), student);
+        byStatus.add(student.getStatus(), student);
+        byDepartment.add(departmentKey(student.getDepartment()), student); // byRegNo is filled by insert()
+    }
+    
+    // Department lookups ignore case, so "CS" and "cs" land in one bucket
+    private static String departmentKey(String department) {
+        return department == null ? "" : department.trim().toLowerCase(Locale.ROOT);
+    }
+    
+    // Drops every student, e.g. before restoring a backup. Not meant to overlap other mutations.
+    public void clear() {
+        materialize();
+        journal.clearStudents();
+        grades.clear(students.values());
+        students.clear();
+        byId.clear();
+        byRegNo.clear();
+        byStatus.clear();
+        byDepartment.clear();
+        fire(MutationListener::studentsCleared);
+        commit();
+    }
+    
+    // Runs a change to one student under its stripe lock; commits after unlocking if it applied
+    private boolean mutate(String id, Predicate<Student> change) {
+        materialize();
+        ReentrantLock lock = locks.get(id);
+        boolean applied;
+        lock.lock();
+        try {
+            Student student = students.get(id);
+            applied = student != null && change.test(student);
+        } finally {
+            lock.unlock();
+        }
+        if (applied) {
+            commit();
+        }
+        return applied;
+    }
+    
+    public void updateStudent(String id, String email) {
+        mutate(id, student -> {
+            journal.updateStudent(student, email);
+            student.setEmail(email);
+            fire(l -> l.studentUpdated(student));
+            return true;
+        });
+    }
+    
+    public void deactivateStudent(String id) {
+        changeStatus(id, StudentStatus.INACTIVE);
+    }
+    
+    public void changeStatus(String id, StudentStatus status) {
+        mutate(id, student -> {
+            StudentStatus previous = student.getStatus();
+            if (previous == status) return false;
+            journal.changeStatus(student, status);
+            student.setStatus(status);
+            byStatus.move(previous, status, student);
+            fire(l -> l.statusChanged(student, previous));
+            return true;
+        });
+    }
+    
+    // Enrollment and grading go through the service so listeners see every change.
+    // This records the enrollment only; seat capacity is EnrollmentService's job.
+    // False if the student is unknown or already enrolled.
+    public boolean enrollInCourse(String id, String courseCode, int credits) throws MaxCreditLimitExceededException {
+        materialize();
+        ReentrantLock lock = locks.get(id);
+        boolean enrolled = false;
+        lock.lock();
+        try {
+            Student student = students.get(id);
+            if (student != null && !student.isEnrolledIn(courseCode)) {
+                student.checkEnrollment(credits); // Under the lock, so the check still holds for the update
+                journal.enroll(student, courseCode, credits);
+                student.enrollInCourse(courseCode, credits);
+                fire(l -> l.enrolled(student, courseCode, credits));
+                enrolled = true;
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (enrolled) {
+            commit();
+        }
+        return enrolled;
+    }
+    
+    // All-or-nothing enrollment in a set of courses (code -> credits). Validation, the
+    // update and one enrolled event per course all happen under the student's lock.
+    public void enrollInCourses(String id, Map<String, Integer> courses)
+            throws DuplicateEnrollmentException, MaxCreditLimitExceededException {
+        applyEnrollments(id, courses);
+        commit();
+    }
+    
+    // Batch callers apply many students' schedules and then commit once with commitPending()
+    void applyEnrollments(String id, Map<String, Integer> courses)
+            throws DuplicateEnrollmentException, MaxCreditLimitExceededException {
+        materialize();
+        ReentrantLock lock = locks.get(id);
+        lock.lock();
+        try {
+            Student student = students.get(id);
+            if (student == null) {
+                throw new IllegalArgumentException("Student not found: " + id);
+            }
+            student.checkEnrollments(courses);
+            courses.forEach((code, credits) -> journal.enroll(student, code, credits));
+            student.enrollInCourses(courses);
+            courses.forEach((code, credits) -> fire(l -> l.enrolled(student, code, credits)));
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    void commitPending() {
+        commit();
+    }
+    
+    public boolean unenrollFromCourse(String id, String courseCode, int credits) {
+        return mutate(id, student -> {
+            if (!student.isEnrolledIn(courseCode)) return false;
+            journal.unenroll(student, courseCode, credits);
+            student.unenrollFromCourse(courseCode, credits);
+            fire(l -> l.unenrolled(student, courseCode, credits));
+            return true;
+        });
+    }
+    
+    // Grade earned in a course; the course's term and credits go on the transcript with it
+    public void recordGrade(String id, Course course, Grade grade) {
+        recordGrade(id, GradeEntry.forCourse(course, grade));
+    }
+    
+    // A grade not tied to a course (older records)
+    public void recordGrade(String id, Grade grade) {
+        recordGrade(id, GradeEntry.unattributed(grade));
+    }
+    
+    public void recordGrade(String id, GradeEntry entry) {
+        Transcript.checkCredits(entry);
+        mutate(id, student -> {
+            journal.recordGrade(student, entry);
+            student.addGrade(entry);
+            fire(l -> l.gradeRecorded(student, entry));
+            return true;
+        });
+    }
+    
+    // Replaces the grade at a position in the student's grade list, keeping its course and term
+    public void correctGrade(String id, int index, Grade grade) {
+        mutate(id, student -> {
+            Objects.checkIndex(index, student.getGradeCount());
+            journal.correctGrade(student, index, grade);
+            GradeEntry previous = student.correctGrade(index, grade);
+            fire(l -> l.gradeCorrected(student, index, previous));
+            return true;
+        });
+    }
+    
+    public void removeGrade(String id, int index) {
+        mutate(id, student -> {
+            Objects.checkIndex(index, student.getGradeCount());
+            journal.removeGrade(student, index);
+            GradeEntry removed = student.removeGrade(index);
+            fire(l -> l.gradeRemoved(student, index, removed));
+            return true;
+        });
+    }
+    
+    // --- Reading a mapped snapshot in place ---
+    
+    // Serves findById, findAll, search, stream, page and count straight from a mapped
+    // snapshot without decoding it, for batch jobs that only read. Those calls hand out
+    // decoded copies. Anything else - a change, an index lookup, a save - first loads the
+    // table into the stores and indexes as loadFrom would, announcing the records to the
+    // listeners registered now but not to the journal. The service must be empty.
+    public void openMapped(Path file) throws IOException {
+        MappedSnapshot.StudentTable table = MappedSnapshot.openStudents(file);
+        synchronized (this) {
+            if (mapped != null || !students.isEmpty()) {
+                throw new IllegalStateException("Students are already loaded");
+            }
+            mappedListeners = new ArrayList<>(listeners);
+            mapped = table;
+        }
+        System.out.println("Opened " + table.size() + " students in " + file + " for reading.");
+    }
+    
+    // Loads the table left by openMapped, once; a no-op otherwise
+    private void materialize() {
+        if (mapped == null) return;
+        synchronized (this) {
+            MappedSnapshot.StudentTable table = mapped;
+            if (table == null) return;
+            for (int i = 0; i < table.size(); i++) {
+                insert(table.get(i), MutationJournal.NONE, mappedListeners); // Written by saveTo, so no conflicts
+            }
+            for (MutationListener listener : mappedListeners) {
+                listener.commit();
+            }
+            mappedListeners = null;
+            mapped = null;
+        }
+    }
+    
+    @Override
+    public List<Student> search(Predicate<Student> criteria) {
+        MappedSnapshot.StudentTable table = mapped;
+        if (table != null) return table.search(criteria);
+        return students.values().stream()
+                .filter(criteria)
+                .collect(Collectors.toList());
+    }
+    
+    @Override
+    public List<Student> findAll() {
+        MappedSnapshot.StudentTable table = mapped;
+        if (table != null) return table.findAll();
+        return new ArrayList<>(students.values());
+    }
+    
+    @Override
+    public Student findById(String id) {
+        MappedSnapshot.StudentTable table = mapped;
+        if (table != null) return table.findById(id);
+        return students.get(id);
+    }
+    
+    // Weakly consistent: walks the live ID index, so students added while it runs may or may not appear
+    @Override
+    public Stream<Student> stream() {
+        MappedSnapshot.StudentTable table = mapped;
+        if (table != null) return table.stream();
+        return byId.values().stream();
+    }
+    
+    @Override
+    public Page<Student> page(String afterId, int size, Predicate<Student> criteria) {
+        MappedSnapshot.StudentTable table = mapped;
+        if (table != null) return table.page(afterId, size, criteria);
+        return Page.of(byId, afterId, size, criteria);
+    }
+    
+    @Override
+    public QueryResult<Student> query(Query<Student> query) {
+        materialize();
+        return planner.execute(query);
+    }
+    
+    @Override
+    public long count() {
+        MappedSnapshot.StudentTable table = mapped;
+        if (table != null) return table.count();
+        return students.size();
+    }
+    
+    public List<Student> findByStatus(StudentStatus status) {
+        materialize();
+        return byStatus.get(status);
+    }
+    
+    public int countByStatus(StudentStatus status) {
+        materialize();
+        return byStatus.count(status);
+    }
+    
+    public Student findByRegNo(String regNo) {
+        materialize();
+        return byRegNo.get(regNo);
+    }
+    
+    public List<Student> findByDepartment(String department) {
+        materialize();
+        return byDepartment.get(departmentKey(department));
+    }
+    
+    // Columnar history of every recorded grade - transcripts, term GPAs, course distributions
+    public GradeStore getGradeStore() {
+        materialize();
+        return grades;
+    }
+    
+    // Class roster from the enrollment index - no scan over the students
+    public List<Student> getRoster(String courseCode) {
+        materialize();
+        return enrollments.getRoster(courseCode);
+    }
+    
+    public int getRosterSize(String courseCode) {
+        materialize();
+        return enrollments.getRosterSize(courseCode);
+    }
+    
+    // Active students with grades, highest GPA first (ties by regNo)
+    public List<Student> getTopStudentsByGPA(int limit) {
+        materialize();
+        return leaderboard.top(limit);
+    }
+    
+    // 1-based GPA rank among active students with grades, or -1 if not ranked
+    public int getGpaRank(String id) {
+        materialize();
+        return leaderboard.rankOf(id);
+    }
+    
+    public int getRankedStudentCount() {
+        materialize();
+        return leaderboard.size();
+    }
+    
+    // Students with min <= GPA <= max from the GPA index, lowest GPA first; a null bound
+    // leaves that side open. Ungraded students count as 0.0.
+    public List<Student> findByGpaRange(Double min, Double max) {
+        materialize();
+        return byGpa.range(min, max);
+    }
+    
+    public int countByGpaRange(Double min, Double max) {
+        materialize();
+        return byGpa.countRange(min, max);
+    }
+    
+    @Override
+    public void save() throws Exception {
+        AppConfig config = AppConfig.getInstance();
+        saveTo(Paths.get(config.getDataFolderPath(), config.getSnapshotFormat().fileName("students")));
+    }
+    
+    public void saveTo(Path file) throws Exception {
+        materialize();
+        System.out.println("Saving students to " + file + "...");
+        int saved;
+        switch (SnapshotFormat.forFile(file)) {
+            case BINARY: saved = BinaryCodec.writeStudents(file, students.values()); break;
+            case MAPPED: saved = MappedSnapshot.writeStudents(file, students.values()); break;
+            default: saved = CsvExporter.writeStudents(file, students.values());
+        }
+        System.out.println("Saved " + saved + " students.");
+    }
+    
+    @Override
+    public void load() throws Exception {
+        AppConfig config = AppConfig.getInstance();
+        loadFrom(Paths.get(config.getDataFolderPath(), config.getSnapshotFormat().fileName("students")));
+    }
+    
+    // Picks the codec from the file extension - .bin is BinaryCodec, .snap is
+    // MappedSnapshot, anything else is CSV
+    public void loadFrom(Path file) throws Exception {
+        if (SnapshotFormat.forFile(file) == SnapshotFormat.MAPPED) {
+            System.out.println("Loading students from " + file + "...");
+            MappedSnapshot.StudentTable table = MappedSnapshot.openStudents(file);
+            // Decodes every record - the indexes need them all. Read the table directly to avoid that.
+            int added = bulkLoad(table.stream());
+            System.out.println("Loaded " + added + " students.");
+            return;
+        }
+        
+        if (SnapshotFormat.forFile(file) == SnapshotFormat.BINARY) {
+            System.out.println("Loading students from " + file + "...");
+            List<Student> decoded = BinaryCodec.readStudents(file);
+            int added = bulkLoad(decoded.stream());
+            System.out.println("Loaded " + added + " students.");
+            return;
+        }
+        
+        if (Files.size(file) >= AppConfig.getInstance().getParallelImportThreshold()) {
+            loadParallel(file);
+            return;
+        }
+        
+        System.out.println("Loading students from " + file + "...");
+        try (Stream<Student> rows = CsvImporter.streamStudents(file)) {
+            int added = bulkLoad(rows);
+            System.out.println("Loaded " + added + " students.");
+        }
+    }
+    
+    // Large exports: memory-mapped, parsed chunk by chunk on the fork-join pool, then merged in file order
+    public void loadParallel(Path file) throws Exception {
+        System.out.println("Loading students from " + file + " in parallel...");
+        List<Student> parsed = new ParallelCsvImporter().parseStudents(file);
+        int added = bulkLoad(parsed.stream());
+        System.out.println("Loaded " + added + " students.");
+    }
+}
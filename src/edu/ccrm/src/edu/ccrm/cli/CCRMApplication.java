@@ -1,872 +1,1164 @@
-package edu.ccrm.cli;
-
-import edu.ccrm.config.AppConfig;
-import edu.ccrm.domain.*;
-import edu.ccrm.service.*;
-import edu.ccrm.exception.*;
-import edu.ccrm.io.BackupService;
-import edu.ccrm.util.Comparators;
-
-import java.io.IOException;
-import java.util.*;
-import java.util.function.Predicate;
-import java.util.stream.Collectors;
-
-public class CCRMApplication {
-    private final StudentService studentService;
-    private final CourseService courseService;
-    private final BackupService backupService;
-    private final Scanner scanner;
-    private final AppConfig config;
-    
-    // Inner class for menu options
-    private class MenuOption {
-        private final String description;
-        private final Runnable action;
-        
-        public MenuOption(String description, Runnable action) {
-            this.description = description;
-            this.action = action;
-        }
-        
-        public String getDescription() { return description; }
-        public void execute() { action.run(); }
-    }
-    
-    public CCRMApplication() {
-        this.config = AppConfig.getInstance();
-        this.studentService = new StudentService();
-        this.courseService = new CourseService();
-        this.backupService = new BackupService(config.getBackupFolderPath());
-        this.scanner = new Scanner(System.in);
-        
-        initializeSampleData();
-    }
-    
-    private void initializeSampleData() {
-        try {
-            // Add sample students
-            Student student1 = new Student("S001", new Name("John", "Doe"), "john@example.com", "REG001");
-            Student student2 = new Student("S002", new Name("Jane", "Smith"), "jane@example.com", "REG002");
-            
-            studentService.addStudent(student1);
-            studentService.addStudent(student2);
-            
-            // Add sample courses using Builder pattern
-            Course course1 = new Course.Builder("CS101", "Introduction to Programming", 3)
-                    .instructor("Dr. Wilson")
-                    .semester(Semester.FALL)
-                    .department("Computer Science")
-                    .build();
-                    
-            Course course2 = new Course.Builder("MATH201", "Calculus II", 4)
-                    .instructor("Prof. Johnson")
-                    .semester(Semester.SPRING)
-                    .department("Mathematics")
-                    .build();
-            
-            courseService.addCourse(course1);
-            courseService.addCourse(course2);
-            
-            // Enroll students and add grades
-            student1.enrollInCourse("CS101", 3);
-            student1.addGrade(Grade.A);
-            student2.enrollInCourse("MATH201", 4);
-            student2.addGrade(Grade.S);
-            
-        } catch (Exception e) {
-            System.err.println("Error initializing sample data: " + e.getMessage());
-        }
-    }
-    
-    public void start() {
-        System.out.println("=== Campus Course & Records Manager ===");
-        System.out.println("Welcome to CCRM - Java SE Application");
-        config.displayInfo();
-        
-        displayPlatformInfo();
-        
-        Map<Integer, MenuOption> menuOptions = createMenuOptions();
-        
-        mainLoop: while (true) {
-            displayMainMenu(menuOptions);
-            
-            try {
-                int choice = scanner.nextInt();
-                scanner.nextLine(); // Consume newline
-                
-                switch (choice) {
-                    case 0:
-                        System.out.println("Thank you for using CCRM!");
-                        break mainLoop; // Labeled break
-                    default:
-                        MenuOption option = menuOptions.get(choice);
-                        if (option != null) {
-                            option.execute();
-                        } else {
-                            System.out.println("Invalid option. Please try again.");
-                        }
-                }
-            } catch (InputMismatchException e) {
-                System.out.println("Please enter a valid number.");
-                scanner.nextLine(); // Clear invalid input
-            }
-        }
-    }
-    
-    private Map<Integer, MenuOption> createMenuOptions() {
-        Map<Integer, MenuOption> options = new HashMap<>();
-        
-        options.put(1, new MenuOption("Manage Students", this::manageStudents));
-        options.put(2, new MenuOption("Manage Courses", this::manageCourses));
-        options.put(3, new MenuOption("Enrollment & Grading", this::manageEnrollment));
-        options.put(4, new MenuOption("Reports", this::generateReports));
-        options.put(5, new MenuOption("Backup & File Operations", this::manageBackup));
-        options.put(6, new MenuOption("Search Operations", this::searchOperations));
-        
-        return options;
-    }
-    
-    private void displayMainMenu(Map<Integer, MenuOption> options) {
-        System.out.println("\n=== Main Menu ===");
-        options.forEach((key, value) -> 
-            System.out.println(key + ". " + value.getDescription()));
-        System.out.println("0. Exit");
-        System.out.print("Enter your choice: ");
-    }
-    
-    private void manageStudents() {
-        System.out.println("\n=== Student Management ===");
-        System.out.println("1. Add Student");
-        System.out.println("2. List All Students");
-        System.out.println("3. Update Student");
-        System.out.println("4. Deactivate Student");
-        System.out.println("5. Display Student Profile");
-        System.out.print("Choose option: ");
-        
-        int option = scanner.nextInt();
-        scanner.nextLine();
-        
-        switch (option) {
-            case 1:
-                addStudent();
-                break;
-            case 2:
-                listAllStudents();
-                break;
-            case 3:
-                updateStudent();
-                break;
-            case 4:
-                deactivateStudent();
-                break;
-            case 5:
-                displayStudentProfile();
-                break;
-            default:
-                System.out.println("Invalid option");
-        }
-    }
-    
-    private void addStudent() {
-        try {
-            System.out.print("Enter Student ID: ");
-            String id = scanner.nextLine();
-            
-            System.out.print("Enter Registration Number: ");
-            String regNo = scanner.nextLine();
-            
-            System.out.print("Enter First Name: ");
-            String firstName = scanner.nextLine();
-            
-            System.out.print("Enter Last Name: ");
-            String lastName = scanner.nextLine();
-            
-            System.out.print("Enter Email: ");
-            String email = scanner.nextLine();
-            
-            Student student = new Student(id, new Name(firstName, lastName), email, regNo);
-            studentService.addStudent(student);
-            
-            System.out.println("Student added successfully!");
-            
-        } catch (DuplicateEnrollmentException e) {
-            System.err.println("Error: " + e.getMessage());
-        }
-    }
-    
-    private void listAllStudents() {
-        List<Student> students = studentService.findAll();
-        
-        if (students.isEmpty()) {
-            System.out.println("No students found.");
-            return;
-        }
-        
-        // Using enhanced for loop
-        System.out.println("\n=== All Students ===");
-        for (Student student : students) {
-            System.out.println(student);
-        }
-        
-        // Demonstrate sorting with lambda
-        System.out.println("\n=== Students Sorted by GPA ===");
-        students.stream()
-                .sorted(Comparators.BY_GPA)
-                .forEach(System.out::println);
-    }
-    
-    private void updateStudent() {
-        System.out.print("Enter Student ID to update: ");
-        String id = scanner.nextLine();
-        
-        Student student = studentService.findById(id);
-        if (student == null) {
-            System.out.println("Student not found.");
-            return;
-        }
-        
-        System.out.print("Enter new email: ");
-        String email = scanner.nextLine();
-        
-        studentService.updateStudent(id, email);
-        System.out.println("Student updated successfully!");
-    }
-    
-    private void deactivateStudent() {
-        System.out.print("Enter Student ID to deactivate: ");
-        String id = scanner.nextLine();
-        
-        Student student = studentService.findById(id);
-        if (student == null) {
-            System.out.println("Student not found.");
-            return;
-        }
-        
-        studentService.deactivateStudent(id);
-        System.out.println("Student deactivated successfully!");
-    }
-    
-    private void displayStudentProfile() {
-        System.out.print("Enter Student ID: ");
-        String id = scanner.nextLine();
-        
-        Student student = studentService.findById(id);
-        if (student == null) {
-            System.out.println("Student not found.");
-            return;
-        }
-        
-        // Polymorphism in action - calling overridden method
-        student.displayProfile();
-        
-        // Display transcript
-        System.out.println("\n=== Transcript ===");
-        List<Grade> grades = student.getGrades();
-        if (grades.isEmpty()) {
-            System.out.println("No grades recorded.");
-        } else {
-            int i = 0;
-            // Traditional for loop with continue example
-            for (i = 0; i < grades.size(); i++) {
-                Grade grade = grades.get(i);
-                if (grade == Grade.F) {
-                    System.out.print("Failed Course, ");
-                    continue; // Jump control example
-                }
-                System.out.println("Course " + (i+1) + ": " + grade);
-            }
-            System.out.println("Final GPA: " + student.calculateGPA());
-        }
-    }
-    
-    private void manageCourses() {
-        System.out.println("\n=== Course Management ===");
-        System.out.println("1. Add Course");
-        System.out.println("2. List All Courses");
-        System.out.println("3. Update Course");
-        System.out.println("4. Deactivate Course");
-        System.out.println("5. Search Courses");
-        System.out.print("Choose option: ");
-        
-        int option = scanner.nextInt();
-        scanner.nextLine();
-        
-        switch (option) {
-            case 1 -> addCourse(); // Enhanced switch
-            case 2 -> listAllCourses();
-            case 3 -> updateCourse();
-            case 4 -> deactivateCourse();
-            case 5 -> searchCourses();
-            default -> System.out.println("Invalid option");
-        }
-    }
-    
-    private void addCourse() {
-        System.out.print("Enter Course Code: ");
-        String code = scanner.nextLine();
-        
-        System.out.print("Enter Course Title: ");
-        String title = scanner.nextLine();
-        
-        System.out.print("Enter Credits: ");
-        int credits = scanner.nextInt();
-        scanner.nextLine();
-        
-        System.out.print("Enter Instructor: ");
-        String instructor = scanner.nextLine();
-        
-        System.out.print("Enter Department: ");
-        String department = scanner.nextLine();
-        
-        System.out.println("Select Semester:");
-        // Using enhanced for with enum
-        int semIndex = 1;
-        for (Semester sem : Semester.values()) {
-            System.out.println(semIndex + ". " + sem);
-            semIndex++;
-        }
-        
-        int semChoice = scanner.nextInt();
-        scanner.nextLine();
-        
-        Semester selectedSemester = Semester.values()[semChoice - 1];
-        
-        // Using Builder pattern
-        Course course = new Course.Builder(code, title, credits)
-                .instructor(instructor)
-                .department(department)
-                .semester(selectedSemester)
-                .build();
-        
-        courseService.addCourse(course);
-        System.out.println("Course added successfully!");
-    }
-    
-    private void listAllCourses() {
-        List<Course> courses = courseService.findAll();
-        
-        if (courses.isEmpty()) {
-            System.out.println("No courses found.");
-            return;
-        }
-        
-        System.out.println("\n=== All Courses ===");
-        // Using method reference
-        courses.forEach(System.out::println);
-        
-        // Demonstrate Stream operations
-        System.out.println("\n=== Courses by Department ===");
-        Map<String, List<Course>> coursesByDept = courses.stream()
-                .collect(Collectors.groupingBy(Course::getDepartment));
-        
-        coursesByDept.forEach((dept, courseList) -> {
-            System.out.println(dept + ":");
-            courseList.forEach(c -> System.out.println("  " + c.getCode() + " - " + c.getTitle()));
-        });
-    }
-    
-    private void updateCourse() {
-        System.out.print("Enter Course Code to update: ");
-        String code = scanner.nextLine();
-        
-        Course course = courseService.findById(code);
-        if (course == null) {
-            System.out.println("Course not found.");
-            return;
-        }
-        
-        System.out.print("Enter new instructor: ");
-        String instructor = scanner.nextLine();
-        
-        courseService.updateCourse(code, instructor);
-        System.out.println("Course updated successfully!");
-    }
-    
-    private void deactivateCourse() {
-        System.out.print("Enter Course Code to deactivate: ");
-        String code = scanner.nextLine();
-        
-        Course course = courseService.findById(code);
-        if (course == null) {
-            System.out.println("Course not found.");
-            return;
-        }
-        
-        courseService.deactivateCourse(code);
-        System.out.println("Course deactivated successfully!");
-    }
-    
-    private void searchCourses() {
-        System.out.println("1. Search by Department");
-        System.out.println("2. Search by Instructor");
-        System.out.println("3. Search by Semester");
-        System.out.print("Choose search type: ");
-        
-        int choice = scanner.nextInt();
-        scanner.nextLine();
-        
-        List<Course> results = new ArrayList<>();
-        
-        switch (choice) {
-            case 1:
-                System.out.print("Enter Department: ");
-                String dept = scanner.nextLine();
-                results = courseService.findByDepartment(dept);
-                break;
-            case 2:
-                System.out.print("Enter Instructor: ");
-                String instructor = scanner.nextLine();
-                results = courseService.findByInstructor(instructor);
-                break;
-            case 3:
-                System.out.println("Select Semester:");
-                int semIndex = 1;
-                for (Semester sem : Semester.values()) {
-                    System.out.println(semIndex + ". " + sem);
-                    semIndex++;
-                }
-                int semChoice = scanner.nextInt();
-                Semester selectedSem = Semester.values()[semChoice - 1];
-                results = courseService.findBySemester(selectedSem);
-                break;
-        }
-        
-        if (results.isEmpty()) {
-            System.out.println("No courses found matching the criteria.");
-        } else {
-            System.out.println("Search Results:");
-            results.forEach(System.out::println);
-        }
-    }
-    
-    private void manageEnrollment() {
-        System.out.println("\n=== Enrollment & Grading ===");
-        System.out.println("1. Enroll Student in Course");
-        System.out.println("2. Unenroll Student from Course");
-        System.out.println("3. Record Grade");
-        System.out.print("Choose option: ");
-        
-        int option = scanner.nextInt();
-        scanner.nextLine();
-        
-        switch (option) {
-            case 1:
-                enrollStudent();
-                break;
-            case 2:
-                unenrollStudent();
-                break;
-            case 3:
-                recordGrade();
-                break;
-        }
-    }
-    
-    private void enrollStudent() {
-        System.out.print("Enter Student ID: ");
-        String studentId = scanner.nextLine();
-        
-        Student student = studentService.findById(studentId);
-        if (student == null) {
-            System.out.println("Student not found.");
-            return;
-        }
-        
-        System.out.print("Enter Course Code: ");
-        String courseCode = scanner.nextLine();
-        
-        Course course = courseService.findById(courseCode);
-        if (course == null) {
-            System.out.println("Course not found.");
-            return;
-        }
-        
-        try {
-            student.enrollInCourse(courseCode, course.getCredits());
-            System.out.println("Student enrolled successfully!");
-            
-            // Assertion example - enable with -ea flag
-            assert student.getTotalCredits() <= 18 : "Student credits exceeded limit";
-            
-        } catch (MaxCreditLimitExceededException e) {
-            System.err.println("Enrollment failed: " + e.getMessage());
-        }
-    }
-    
-    private void unenrollStudent() {
-        System.out.print("Enter Student ID: ");
-        String studentId = scanner.nextLine();
-        
-        Student student = studentService.findById(studentId);
-        if (student == null) {
-            System.out.println("Student not found.");
-            return;
-        }
-        
-        System.out.print("Enter Course Code: ");
-        String courseCode = scanner.nextLine();
-        
-        Course course = courseService.findById(courseCode);
-        if (course == null) {
-            System.out.println("Course not found.");
-            return;
-        }
-        
-        student.unenrollFromCourse(courseCode, course.getCredits());
-        System.out.println("Student unenrolled successfully!");
-    }
-    
-    private void recordGrade() {
-        System.out.print("Enter Student ID: ");
-        String studentId = scanner.nextLine();
-        
-        Student student = studentService.findById(studentId);
-        if (student == null) {
-            System.out.println("Student not found.");
-            return;
-        }
-        
-        System.out.println("Select Grade:");
-        int gradeIndex = 1;
-        for (Grade grade : Grade.values()) {
-            System.out.println(gradeIndex + ". " + grade);
-            gradeIndex++;
-        }
-        
-        int gradeChoice = scanner.nextInt();
-        Grade selectedGrade = Grade.values()[gradeChoice - 1];
-        
-        student.addGrade(selectedGrade);
-        System.out.println("Grade recorded successfully!");
-    }
-    
-    private void generateReports() {
-        System.out.println("\n=== Reports ===");
-        System.out.println("1. Top Students by GPA");
-        System.out.println("2. GPA Distribution");
-        System.out.println("3. Course Statistics");
-        System.out.println("4. Student Statistics");
-        System.out.print("Choose report: ");
-        
-        int choice = scanner.nextInt();
-        
-        switch (choice) {
-            case 1:
-                showTopStudents();
-                break;
-            case 2:
-                showGPADistribution();
-                break;
-            case 3:
-                showCourseStatistics();
-                break;
-            case 4:
-                showStudentStatistics();
-                break;
-        }
-    }
-    
-    private void showTopStudents() {
-        List<Student> topStudents = studentService.getTopStudentsByGPA(5);
-        
-        System.out.println("\n=== Top 5 Students by GPA ===");
-        if (topStudents.isEmpty()) {
-            System.out.println("No students with grades found.");
-            return;
-        }
-        
-        int rank = 1;
-        for (Student student : topStudents) {
-            System.out.printf("%d. %s - GPA: %.2f%n", 
-                rank++, student.getFullName(), student.calculateGPA());
-        }
-    }
-    
-    private void showGPADistribution() {
-        List<Student> allStudents = studentService.findAll();
-        
-        // Using Stream API for aggregation
-        Map<String, Long> gpaRanges = allStudents.stream()
-                .filter(s -> !s.getGrades().isEmpty())
-                .collect(Collectors.groupingBy(
-                    s -> {
-                        double gpa = s.calculateGPA();
-                        if (gpa >= 9.0) return "Excellent (9.0+)";
-                        else if (gpa >= 8.0) return "Very Good (8.0-8.9)";
-                        else if (gpa >= 7.0) return "Good (7.0-7.9)";
-                        else if (gpa >= 6.0) return "Average (6.0-6.9)";
-                        else return "Below Average (<6.0)";
-                    },
-                    Collectors.counting()
-                ));
-        
-        System.out.println("\n=== GPA Distribution ===");
-        gpaRanges.forEach((range, count) -> 
-            System.out.println(range + ": " + count + " students"));
-    }
-    
-    private void showCourseStatistics() {
-        List<Course> courses = courseService.findAll();
-        
-        System.out.println("\n=== Course Statistics ===");
-        System.out.println("Total Courses: " + courses.size());
-        
-        // Group by semester
-        Map<Semester, Long> courseBySemester = courses.stream()
-                .collect(Collectors.groupingBy(Course::getSemester, Collectors.counting()));
-        
-        System.out.println("\nCourses by Semester:");
-        courseBySemester.forEach((sem, count) -> 
-            System.out.println(sem + ": " + count));
-        
-        // Average credits
-        double avgCredits = courses.stream()
-                .mapToInt(Course::getCredits)
-                .average()
-                .orElse(0.0);
-        
-        System.out.printf("Average Credits per Course: %.2f%n", avgCredits);
-    }
-    
-    private void showStudentStatistics() {
-        List<Student> students = studentService.findAll();
-        
-        // Using static nested class
-        double avgGPA = students.stream()
-                .filter(s -> !s.getGrades().isEmpty())
-                .mapToDouble(Student::calculateGPA)
-                .average()
-                .orElse(0.0);
-        
-        Student.Statistics stats = new Student.Statistics(students.size(), avgGPA);
-        
-        System.out.println("\n=== Student Statistics ===");
-        System.out.println("Total Students: " + stats.getTotalStudents());
-        System.out.printf("Average GPA: %.2f%n", stats.getAverageGPA());
-        
-        // Status distribution
-        Map<StudentStatus, Long> statusDistribution = students.stream()
-                .collect(Collectors.groupingBy(Student::getStatus, Collectors.counting()));
-        
-        System.out.println("\nStudent Status Distribution:");
-        statusDistribution.forEach((status, count) -> 
-            System.out.println(status + ": " + count));
-    }
-    
-    private void manageBackup() {
-        System.out.println("\n=== Backup & File Operations ===");
-        System.out.println("1. Create Backup");
-        System.out.println("2. Show Backup Directory Size");
-        System.out.println("3. List Backup Files");
-        System.out.println("4. Export Data");
-        System.out.print("Choose option: ");
-        
-        int choice = scanner.nextInt();
-        
-        try {
-            switch (choice) {
-                case 1:
-                    backupService.createBackup();
-                    break;
-                case 2:
-                    showBackupSize();
-                    break;
-                case 3:
-                    listBackupFiles();
-                    break;
-                case 4:
-                    exportData();
-                    break;
-            }
-        } catch (IOException e) {
-            System.err.println("File operation failed: " + e.getMessage());
-        }
-    }
-    
-    private void showBackupSize() throws IOException {
-        long size = backupService.calculateDirectorySize(
-            java.nio.file.Paths.get(config.getBackupFolderPath()));
-        
-        System.out.printf("Backup directory size: %d bytes (%.2f KB)%n", 
-            size, size / 1024.0);
-    }
-    
-    private void listBackupFiles() throws IOException {
-        System.out.println("\n=== Backup Directory Contents ===");
-        backupService.listFilesByDepth(
-            java.nio.file.Paths.get(config.getBackupFolderPath()), 3);
-    }
-    
-    private void exportData() {
-        System.out.println("Exporting data...");
-        
-        // Simulate file operations
-        try {
-            studentService.save();
-            courseService.save();
-            System.out.println("Data exported successfully!");
-        } catch (Exception e) {
-            System.err.println("Export failed: " + e.getMessage());
-        }
-    }
-    
-    private void searchOperations() {
-        System.out.println("\n=== Search Operations ===");
-        System.out.println("1. Search Students by Status");
-        System.out.println("2. Search Students by GPA Range");
-        System.out.println("3. Search Courses by Credits");
-        System.out.print("Choose search: ");
-        
-        int choice = scanner.nextInt();
-        scanner.nextLine();
-        
-        switch (choice) {
-            case 1:
-                searchStudentsByStatus();
-                break;
-            case 2:
-                searchStudentsByGPA();
-                break;
-            case 3:
-                searchCoursesByCredits();
-                break;
-        }
-    }
-    
-    private void searchStudentsByStatus() {
-        System.out.println("Select Status:");
-        int statusIndex = 1;
-        for (StudentStatus status : StudentStatus.values()) {
-            System.out.println(statusIndex + ". " + status);
-            statusIndex++;
-        }
-        
-        int choice = scanner.nextInt();
-        StudentStatus selectedStatus = StudentStatus.values()[choice - 1];
-        
-        List<Student> results = studentService.findByStatus(selectedStatus);
-        
-        System.out.println("\n=== Students with status: " + selectedStatus + " ===");
-        if (results.isEmpty()) {
-            System.out.println("No students found.");
-        } else {
-            results.forEach(System.out::println);
-        }
-    }
-    
-    private void searchStudentsByGPA() {
-        System.out.print("Enter minimum GPA: ");
-        double minGPA = scanner.nextDouble();
-        
-        // Using lambda for filtering
-        Predicate<Student> gpaFilter = s -> !s.getGrades().isEmpty() && s.calculateGPA() >= minGPA;
-        
-        List<Student> results = studentService.search(gpaFilter);
-        
-        System.out.println("\n=== Students with GPA >= " + minGPA + " ===");
-        if (results.isEmpty()) {
-            System.out.println("No students found.");
-        } else {
-            results.stream()
-                .sorted(Comparators.BY_GPA)
-                .forEach(s -> System.out.printf("%s - GPA: %.2f%n", 
-                    s.getFullName(), s.calculateGPA()));
-        }
-    }
-    
-    private void searchCoursesByCredits() {
-        System.out.print("Enter minimum credits: ");
-        int minCredits = scanner.nextInt();
-        
-        // Using lambda for filtering
-        List<Course> results = courseService.search(c -> c.getCredits() >= minCredits);
-        
-        System.out.println("\n=== Courses with credits >= " + minCredits + " ===");
-        if (results.isEmpty()) {
-            System.out.println("No courses found.");
-        } else {
-            results.stream()
-                .sorted(Comparators.BY_CREDITS)
-                .forEach(System.out::println);
-        }
-    }
-    
-    private void displayPlatformInfo() {
-        System.out.println("\n=== Java Platform Information ===");
-        System.out.println("Java SE (Standard Edition): Core Java platform for desktop and server applications");
-        System.out.println("Java ME (Micro Edition): For mobile and embedded devices");
-        System.out.println("Java EE (Enterprise Edition): For enterprise applications with web services");
-        System.out.println("Current Application: CCRM runs on Java SE");
-        System.out.println("JDK: Development kit with compiler, JRE: Runtime environment, JVM: Virtual machine");
-    }
-    
-    // Demonstration of operator precedence and bitwise operations
-    private void demonstrateOperators() {
-        int a = 10, b = 3, c = 5;
-        
-        // Arithmetic and precedence: * has higher precedence than +
-        int result1 = a + b * c; // 10 + (3 * 5) = 25
-        
-        // Relational and logical
-        boolean result2 = (a > b) && (c < a); // true && true = true
-        
-        // Bitwise operations
-        int result3 = a & b; // 10 & 3 = 2 (binary: 1010 & 0011 = 0010)
-        int result4 = a | b; // 10 | 3 = 11 (binary: 1010 | 0011 = 1011)
-        
-        System.out.println("Operator demonstrations:");
-        System.out.println("a + b * c = " + result1);
-        System.out.println("(a > b) && (c < a) = " + result2);
-        System.out.println("a & b = " + result3);
-        System.out.println("a | b = " + result4);
-    }
-    
-    // Method demonstrating upcast and downcast with instanceof
-    private void demonstratePolymorphism() {
-        // Upcast (automatic)
-        Person person = new Student("S999", new Name("Test", "User"), "test@example.com", "REG999");
-        
-        System.out.println("Polymorphism demonstration:");
-        person.displayProfile(); // Calls Student's overridden method
-        
-        // Downcast (explicit) with instanceof check
-        if (person instanceof Student) {
-            Student student = (Student) person; // Safe downcast
-            System.out.println("Downcast successful: " + student.getRegNo());
-        }
-    }
-    
-    // Method overloading example
-    public void displayInfo(String message) {
-        System.out.println("Info: " + message);
-    }
-    
-    public void displayInfo(String title, String message) {
-        System.out.println(title + ": " + message);
-    }
-    
-    public void displayInfo(int code, String message) {
-        System.out.println("Code " + code + ": " + message);
-    }
-    
-    public static void main(String[] args) {
-        // Enable assertions with -ea flag
-        System.out.println("Starting CCRM Application...");
-        System.out.println("Note: Run with -ea flag to enable assertions");
-        
-        CCRMApplication app = new CCRMApplication();
-        
-        // Demonstrate method overloading
-        app.displayInfo("Application initialized");
-        app.displayInfo("Status", "Ready to start");
-        app.displayInfo(200, "System OK");
-        
-        // Demonstrate operators and polymorphism
-        app.demonstrateOperators();
-        app.demonstratePolymorphism();
-        
-        // Start the main application
-        app.start();
-    }
-}
\ No newline at end of file
+package edu.ccrm.cli;
+
+import edu.ccrm.config.AppConfig;
+import edu.ccrm.domain.*;
+import edu.ccrm.service.*;
+import edu.ccrm.exception.*;
+import edu.ccrm.io.BackupService;
+import edu.ccrm.io.CsvImporter;
+import edu.ccrm.io.MutationLog;
+import edu.ccrm.io.SnapshotFormat;
+import edu.ccrm.util.Comparators;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.stream.Collectors;
+
+public class CCRMApplication {
+    private final StudentService studentService;
+    private final CourseService courseService;
+    private final EnrollmentService enrollmentService;
+    private final BackupService backupService;
+    private final StatisticsEngine statisticsEngine;
+    private final ReportEngine reportEngine;
+    private final MutationLog mutationLog;
+    private final Scanner scanner;
+    private final AppConfig config;
+    
+    // Inner class for menu options
+    private class MenuOption {
+        private final String description;
+        private final Runnable action;
+        
+        public MenuOption(String description, Runnable action) {
+            this.description = description;
+            this.action = action;
+        }
+        
+        public String getDescription() { return description; }
+        public void execute() { action.run(); }
+    }
+    
+    public CCRMApplication() {
+        this.config = AppConfig.getInstance();
+        this.studentService = new StudentService();
+        this.courseService = new CourseService();
+        this.enrollmentService = new EnrollmentService(studentService, courseService);
+        this.backupService = new BackupService(config.getBackupFolderPath());
+        this.reportEngine = new ReportEngine(studentService, courseService);
+        this.scanner = new Scanner(System.in);
+        this.mutationLog = openMutationLog();
+        
+        // Registered before anything loads so it sees every record
+        this.statisticsEngine = new StatisticsEngine();
+        studentService.addListener(statisticsEngine);
+        courseService.addListener(statisticsEngine);
+        
+        boolean recovered = recoverState();
+        if (mutationLog != null) {
+            studentService.setJournal(mutationLog);
+            courseService.setJournal(mutationLog);
+        }
+        studentService.addListener(backupService);
+        courseService.addListener(backupService);
+        if (!recovered) {
+            initializeSampleData();
+        }
+    }
+    
+    private MutationLog openMutationLog() {
+        try {
+            return new MutationLog(Paths.get(config.getDataFolderPath(), "mutations.log"));
+        } catch (IOException e) {
+            System.err.println("Mutation log unavailable, changes will not survive a crash: " + e.getMessage());
+            return null;
+        }
+    }
+    
+    // Latest snapshot from the data folder, then every mutation logged since it was taken
+    private boolean recoverState() {
+        Path dataFolder = Paths.get(config.getDataFolderPath());
+        try {
+            Path courses = dataFolder.resolve(config.getSnapshotFormat().fileName("courses"));
+            Path students = dataFolder.resolve(config.getSnapshotFormat().fileName("students"));
+            if (Files.exists(courses)) courseService.loadFrom(courses);
+            if (Files.exists(students)) studentService.loadFrom(students);
+            
+            if (mutationLog != null) {
+                int replayed = mutationLog.replay(studentService, courseService);
+                if (replayed > 0) {
+                    System.out.println("Replayed " + replayed + " logged changes.");
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("Error recovering saved data: " + e.getMessage());
+        }
+        enrollmentService.recountSeats(); // Snapshots and the log record enrollments, not seat counts
+        return studentService.count() > 0 || courseService.count() > 0;
+    }
+    
+    private void initializeSampleData() {
+        try {
+            // Add sample students
+            Student student1 = new Student("S001", new Name("John", "Doe"), "john@example.com", "REG001");
+            Student student2 = new Student("S002", new Name("Jane", "Smith"), "jane@example.com", "REG002");
+            
+            studentService.addStudent(student1);
+            studentService.addStudent(student2);
+            
+            // Add sample courses using Builder pattern
+            Course course1 = new Course.Builder("CS101", "Introduction to Programming", 3)
+                    .instructor("Dr. Wilson")
+                    .semester(Semester.FALL)
+                    .department("Computer Science")
+                    .build();
+                    
+            Course course2 = new Course.Builder("MATH201", "Calculus II", 4)
+                    .instructor("Prof. Johnson")
+                    .semester(Semester.SPRING)
+                    .department("Mathematics")
+                    .build();
+            
+            courseService.addCourse(course1);
+            courseService.addCourse(course2);
+            
+            // Enroll students and add grades
+            enrollmentService.enroll(student1.getId(), "CS101");
+            studentService.recordGrade(student1.getId(), course1, Grade.A);
+            enrollmentService.enroll(student2.getId(), "MATH201");
+            studentService.recordGrade(student2.getId(), course2, Grade.S);
+            
+        } catch (Exception e) {
+            System.err.println("Error initializing sample data: " + e.getMessage());
+        }
+    }
+    
+    public void start() {
+        System.out.println("=== Campus Course & Records Manager ===");
+        System.out.println("Welcome to CCRM - Java SE Application");
+        config.displayInfo();
+        
+        displayPlatformInfo();
+        
+        Map<Integer, MenuOption> menuOptions = createMenuOptions();
+        
+        mainLoop: while (true) {
+            displayMainMenu(menuOptions);
+            
+            try {
+                int choice = scanner.nextInt();
+                scanner.nextLine(); // Consume newline
+                
+                switch (choice) {
+                    case 0:
+                        shutdown();
+                        System.out.println("Thank you for using CCRM!");
+                        break mainLoop; // Labeled break
+                    default:
+                        MenuOption option = menuOptions.get(choice);
+                        if (option != null) {
+                            option.execute();
+                        } else {
+                            System.out.println("Invalid option. Please try again.");
+                        }
+                }
+            } catch (InputMismatchException e) {
+                System.out.println("Please enter a valid number.");
+                scanner.nextLine(); // Clear invalid input
+            }
+        }
+    }
+    
+    private void shutdown() {
+        if (mutationLog != null) {
+            try {
+                mutationLog.close();
+            } catch (IOException e) {
+                System.err.println("Error closing mutation log: " + e.getMessage());
+            }
+        }
+    }
+    
+    private Map<Integer, MenuOption> createMenuOptions() {
+        Map<Integer, MenuOption> options = new HashMap<>();
+        
+        options.put(1, new MenuOption("Manage Students", this::manageStudents));
+        options.put(2, new MenuOption("Manage Courses", this::manageCourses));
+        options.put(3, new MenuOption("Enrollment & Grading", this::manageEnrollment));
+        options.put(4, new MenuOption("Reports", this::generateReports));
+        options.put(5, new MenuOption("Backup & File Operations", this::manageBackup));
+        options.put(6, new MenuOption("Search Operations", this::searchOperations));
+        
+        return options;
+    }
+    
+    private void displayMainMenu(Map<Integer, MenuOption> options) {
+        System.out.println("\n=== Main Menu ===");
+        options.forEach((key, value) -> 
+            System.out.println(key + ". " + value.getDescription()));
+        System.out.println("0. Exit");
+        System.out.print("Enter your choice: ");
+    }
+    
+    private void manageStudents() {
+        System.out.println("\n=== Student Management ===");
+        System.out.println("1. Add Student");
+        System.out.println("2. List All Students");
+        System.out.println("3. Update Student");
+        System.out.println("4. Deactivate Student");
+        System.out.println("5. Display Student Profile");
+        System.out.print("Choose option: ");
+        
+        int option = scanner.nextInt();
+        scanner.nextLine();
+        
+        switch (option) {
+            case 1:
+                addStudent();
+                break;
+            case 2:
+                listAllStudents();
+                break;
+            case 3:
+                updateStudent();
+                break;
+            case 4:
+                deactivateStudent();
+                break;
+            case 5:
+                displayStudentProfile();
+                break;
+            default:
+                System.out.println("Invalid option");
+        }
+    }
+    
+    private void addStudent() {
+        try {
+            System.out.print("Enter Student ID: ");
+            String id = scanner.nextLine();
+            
+            System.out.print("Enter Registration Number: ");
+            String regNo = scanner.nextLine();
+            
+            System.out.print("Enter First Name: ");
+            String firstName = scanner.nextLine();
+            
+            System.out.print("Enter Last Name: ");
+            String lastName = scanner.nextLine();
+            
+            System.out.print("Enter Email: ");
+            String email = scanner.nextLine();
+            
+            Student student = new Student(id, new Name(firstName, lastName), email, regNo);
+            studentService.addStudent(student);
+            
+            System.out.println("Student added successfully!");
+            
+        } catch (DuplicateEnrollmentException e) {
+            System.err.println("Error: " + e.getMessage());
+        }
+    }
+    
+    private void listAllStudents() {
+        if (studentService.count() == 0) {
+            System.out.println("No students found.");
+            return;
+        }
+        
+        // Streamed in ID order - each line prints as its record is read, with no copy of the whole list
+        System.out.println("\n=== All Students ===");
+        studentService.stream().forEach(System.out::println);
+        
+        // Demonstrate sorting with lambda
+        System.out.println("\n=== Students Sorted by GPA ===");
+        studentService.stream()
+                .sorted(Comparators.BY_GPA)
+                .forEach(System.out::println);
+    }
+    
+    private void updateStudent() {
+        System.out.print("Enter Student ID to update: ");
+        String id = scanner.nextLine();
+        
+        Student student = studentService.findById(id);
+        if (student == null) {
+            System.out.println("Student not found.");
+            return;
+        }
+        
+        System.out.print("Enter new email: ");
+        String email = scanner.nextLine();
+        
+        studentService.updateStudent(id, email);
+        System.out.println("Student updated successfully!");
+    }
+    
+    private void deactivateStudent() {
+        System.out.print("Enter Student ID to deactivate: ");
+        String id = scanner.nextLine();
+        
+        Student student = studentService.findById(id);
+        if (student == null) {
+            System.out.println("Student not found.");
+            return;
+        }
+        
+        studentService.deactivateStudent(id);
+        System.out.println("Student deactivated successfully!");
+    }
+    
+    private void displayStudentProfile() {
+        System.out.print("Enter Student ID: ");
+        String id = scanner.nextLine();
+        
+        Student student = studentService.findById(id);
+        if (student == null) {
+            System.out.println("Student not found.");
+            return;
+        }
+        
+        // Polymorphism in action - calling overridden method
+        student.displayProfile();
+        
+        // Display transcript
+        System.out.println("\n=== Transcript ===");
+        GradeStore gradeStore = studentService.getGradeStore();
+        List<GradeEntry> grades = gradeStore.getTranscript(student.getId());
+        if (grades.isEmpty()) {
+            System.out.println("No grades recorded.");
+        } else {
+            int i = 0;
+            // Traditional for loop with continue example
+            for (i = 0; i < grades.size(); i++) {
+                GradeEntry entry = grades.get(i);
+                String course = entry.isAttributed() ? entry.getCourseCode() : "Course " + (i+1);
+                if (entry.getGrade() == Grade.F) {
+                    System.out.println(course + ": Failed");
+                    continue; // Jump control example
+                }
+                System.out.println(course + ": " + entry.getGrade());
+            }
+            
+            double[] termGpas = gradeStore.getTermGpas(student.getId());
+            for (Semester semester : Semester.values()) {
+                if (!Double.isNaN(termGpas[semester.ordinal()])) {
+                    System.out.printf("%s GPA: %.2f%n", semester, termGpas[semester.ordinal()]);
+                }
+            }
+            System.out.println("Final GPA (credit-weighted): " + student.calculateGPA());
+            
+            int rank = studentService.getGpaRank(student.getId());
+            if (rank > 0) {
+                System.out.println("Class Rank: " + rank + " of " + studentService.getRankedStudentCount());
+            }
+        }
+    }
+    
+    private void manageCourses() {
+        System.out.println("\n=== Course Management ===");
+        System.out.println("1. Add Course");
+        System.out.println("2. List All Courses");
+        System.out.println("3. Update Course");
+        System.out.println("4. Deactivate Course");
+        System.out.println("5. Search Courses");
+        System.out.println("6. View Course Roster");
+        System.out.print("Choose option: ");
+        
+        int option = scanner.nextInt();
+        scanner.nextLine();
+        
+        switch (option) {
+            case 1 -> addCourse(); // Enhanced switch
+            case 2 -> listAllCourses();
+            case 3 -> updateCourse();
+            case 4 -> deactivateCourse();
+            case 5 -> searchCourses();
+            case 6 -> viewCourseRoster();
+            default -> System.out.println("Invalid option");
+        }
+    }
+    
+    private void addCourse() {
+        System.out.print("Enter Course Code: ");
+        String code = scanner.nextLine();
+        
+        System.out.print("Enter Course Title: ");
+        String title = scanner.nextLine();
+        
+        System.out.print("Enter Credits: ");
+        int credits = scanner.nextInt();
+        scanner.nextLine();
+        
+        System.out.print("Enter Instructor: ");
+        String instructor = scanner.nextLine();
+        
+        System.out.print("Enter Department: ");
+        String department = scanner.nextLine();
+        
+        System.out.println("Select Semester:");
+        // Using enhanced for with enum
+        int semIndex = 1;
+        for (Semester sem : Semester.values()) {
+            System.out.println(semIndex + ". " + sem);
+            semIndex++;
+        }
+        
+        int semChoice = scanner.nextInt();
+        scanner.nextLine();
+        
+        Semester selectedSemester = Semester.values()[semChoice - 1];
+        
+        System.out.print("Enter Seat Capacity (0 for unlimited): ");
+        int capacity = scanner.nextInt();
+        scanner.nextLine();
+        
+        // Using Builder pattern
+        Course course = new Course.Builder(code, title, credits)
+                .instructor(instructor)
+                .department(department)
+                .semester(selectedSemester)
+                .capacity(Math.max(capacity, Course.UNLIMITED))
+                .build();
+        
+        courseService.addCourse(course);
+        System.out.println("Course added successfully!");
+    }
+    
+    private void listAllCourses() {
+        if (courseService.count() == 0) {
+            System.out.println("No courses found.");
+            return;
+        }
+        
+        System.out.println("\n=== All Courses ===");
+        // Using method reference
+        courseService.stream().forEach(System.out::println);
+        
+        // Demonstrate Stream operations
+        System.out.println("\n=== Courses by Department ===");
+        Map<String, List<Course>> coursesByDept = courseService.stream()
+                .collect(Collectors.groupingBy(Course::getDepartment));
+        
+        coursesByDept.forEach((dept, courseList) -> {
+            System.out.println(dept + ":");
+            courseList.forEach(c -> System.out.println("  " + c.getCode() + " - " + c.getTitle()));
+        });
+    }
+    
+    private void updateCourse() {
+        System.out.print("Enter Course Code to update: ");
+        String code = scanner.nextLine();
+        
+        Course course = courseService.findById(code);
+        if (course == null) {
+            System.out.println("Course not found.");
+            return;
+        }
+        
+        System.out.print("Enter new instructor: ");
+        String instructor = scanner.nextLine();
+        
+        courseService.updateCourse(code, instructor);
+        System.out.println("Course updated successfully!");
+    }
+    
+    private void deactivateCourse() {
+        System.out.print("Enter Course Code to deactivate: ");
+        String code = scanner.nextLine();
+        
+        Course course = courseService.findById(code);
+        if (course == null) {
+            System.out.println("Course not found.");
+            return;
+        }
+        
+        int dropped = enrollmentService.deactivateCourse(code);
+        System.out.println("Course deactivated successfully!"
+            + (dropped > 0 ? " " + dropped + " enrolled student(s) were unenrolled." : ""));
+    }
+    
+    private void viewCourseRoster() {
+        System.out.print("Enter Course Code: ");
+        String code = scanner.nextLine();
+        
+        Course course = courseService.findById(code);
+        if (course == null) {
+            System.out.println("Course not found.");
+            return;
+        }
+        
+        List<Student> roster = studentService.getRoster(code);
+        roster.sort(Comparator.comparing(Student::getRegNo));
+        System.out.println("\n=== Roster: " + course.getCode() + " - " + course.getTitle() + " ===");
+        System.out.println("Instructor: " + course.getInstructor());
+        System.out.println("Enrolled: " + roster.size()
+            + (course.hasCapacityLimit() ? " of " + course.getCapacity() + " seats" : ""));
+        roster.forEach(s -> System.out.println("  " + s.getRegNo() + " - " + s.getFullName()));
+        
+        List<String> waitlist = course.getWaitlist();
+        if (!waitlist.isEmpty()) {
+            System.out.println("Waitlist: " + String.join(", ", waitlist));
+        }
+    }
+    
+    private void searchCourses() {
+        System.out.println("1. Search by Department");
+        System.out.println("2. Search by Instructor");
+        System.out.println("3. Search by Semester");
+        System.out.print("Choose search type: ");
+        
+        int choice = scanner.nextInt();
+        scanner.nextLine();
+        
+        List<Course> results = new ArrayList<>();
+        
+        switch (choice) {
+            case 1:
+                System.out.print("Enter Department: ");
+                String dept = scanner.nextLine();
+                results = courseService.findByDepartment(dept);
+                break;
+            case 2:
+                System.out.print("Enter Instructor: ");
+                String instructor = scanner.nextLine();
+                results = courseService.findByInstructor(instructor);
+                break;
+            case 3:
+                System.out.println("Select Semester:");
+                int semIndex = 1;
+                for (Semester sem : Semester.values()) {
+                    System.out.println(semIndex + ". " + sem);
+                    semIndex++;
+                }
+                int semChoice = scanner.nextInt();
+                Semester selectedSem = Semester.values()[semChoice - 1];
+                results = courseService.findBySemester(selectedSem);
+                break;
+        }
+        
+        if (results.isEmpty()) {
+            System.out.println("No courses found matching the criteria.");
+        } else {
+            System.out.println("Search Results:");
+            results.forEach(System.out::println);
+        }
+    }
+    
+    private void manageEnrollment() {
+        System.out.println("\n=== Enrollment & Grading ===");
+        System.out.println("1. Enroll Student in Course");
+        System.out.println("2. Unenroll Student from Course");
+        System.out.println("3. Record Grade");
+        System.out.println("4. Bulk Enroll from Schedule File");
+        System.out.print("Choose option: ");
+        
+        int option = scanner.nextInt();
+        scanner.nextLine();
+        
+        switch (option) {
+            case 1:
+                enrollStudent();
+                break;
+            case 2:
+                unenrollStudent();
+                break;
+            case 3:
+                recordGrade();
+                break;
+            case 4:
+                bulkEnroll();
+                break;
+        }
+    }
+    
+    private void enrollStudent() {
+        System.out.print("Enter Student ID: ");
+        String studentId = scanner.nextLine();
+        
+        Student student = studentService.findById(studentId);
+        if (student == null) {
+            System.out.println("Student not found.");
+            return;
+        }
+        
+        System.out.print("Enter Course Code: ");
+        String courseCode = scanner.nextLine();
+        
+        Course course = courseService.findById(courseCode);
+        if (course == null) {
+            System.out.println("Course not found.");
+            return;
+        }
+        
+        try {
+            EnrollmentService.Result result = enrollmentService.enroll(studentId, courseCode);
+            if (result == EnrollmentService.Result.WAITLISTED) {
+                System.out.println("Course is full. Student added to the waitlist at position "
+                    + course.getWaitlistPosition(studentId) + ".");
+                return;
+            }
+            System.out.println("Student enrolled successfully!");
+            
+            // Assertion example - enable with -ea flag
+            assert student.getTotalCredits() <= Student.MAX_CREDITS_PER_SEMESTER : "Student credits exceeded limit";
+            
+        } catch (MaxCreditLimitExceededException | DuplicateEnrollmentException | IllegalArgumentException e) {
+            System.err.println("Enrollment failed: " + e.getMessage());
+        }
+    }
+    
+    // Each student's schedule is applied whole or not at all
+    private void bulkEnroll() {
+        System.out.print("Enter schedule file (" + CsvImporter.SCHEDULE_HEADER + "): ");
+        String file = scanner.nextLine().trim();
+        
+        try {
+            Map<String, List<String>> schedules = CsvImporter.readSchedules(Paths.get(file));
+            EnrollmentService.BatchResult result = enrollmentService.enrollBatch(schedules);
+            System.out.println("Enrolled " + result.getEnrolledStudentCount() + " of " + result.getStudentCount()
+                + " students (" + result.getEnrollmentCount() + " course enrollments).");
+            result.getFailures().forEach((id, reason) -> System.out.println("  " + id + ": " + reason));
+        } catch (IOException e) {
+            System.err.println("Bulk enrollment failed: " + e.getMessage());
+        }
+    }
+    
+    private void unenrollStudent() {
+        System.out.print("Enter Student ID: ");
+        String studentId = scanner.nextLine();
+        
+        Student student = studentService.findById(studentId);
+        if (student == null) {
+            System.out.println("Student not found.");
+            return;
+        }
+        
+        System.out.print("Enter Course Code: ");
+        String courseCode = scanner.nextLine();
+        
+        Course course = courseService.findById(courseCode);
+        if (course == null) {
+            System.out.println("Course not found.");
+            return;
+        }
+        
+        String promoted = enrollmentService.unenroll(studentId, courseCode);
+        System.out.println("Student unenrolled successfully!");
+        if (promoted != null) {
+            System.out.println("Student " + promoted + " was moved from the waitlist into the course.");
+        }
+    }
+    
+    private void recordGrade() {
+        System.out.print("Enter Student ID: ");
+        String studentId = scanner.nextLine();
+        
+        Student student = studentService.findById(studentId);
+        if (student == null) {
+            System.out.println("Student not found.");
+            return;
+        }
+        
+        System.out.print("Enter Course Code: ");
+        String courseCode = scanner.nextLine();
+        
+        Course course = courseService.findById(courseCode);
+        if (course == null) {
+            System.out.println("Course not found.");
+            return;
+        }
+        if (!student.isEnrolledIn(courseCode)) {
+            System.out.println("Student is not enrolled in " + courseCode + ".");
+            return;
+        }
+        
+        System.out.println("Select Grade:");
+        int gradeIndex = 1;
+        for (Grade grade : Grade.values()) {
+            System.out.println(gradeIndex + ". " + grade);
+            gradeIndex++;
+        }
+        
+        int gradeChoice = scanner.nextInt();
+        Grade selectedGrade = Grade.values()[gradeChoice - 1];
+        
+        studentService.recordGrade(studentId, course, selectedGrade);
+        System.out.println("Grade recorded successfully!");
+    }
+    
+    private void generateReports() {
+        System.out.println("\n=== Reports ===");
+        System.out.println("1. Top Students by GPA");
+        System.out.println("2. GPA Distribution");
+        System.out.println("3. Course Statistics");
+        System.out.println("4. Student Statistics");
+        System.out.println("5. Term Analytics");
+        System.out.print("Choose report: ");
+        
+        int choice = scanner.nextInt();
+        
+        switch (choice) {
+            case 1:
+                showTopStudents();
+                break;
+            case 2:
+                showGPADistribution();
+                break;
+            case 3:
+                showCourseStatistics();
+                break;
+            case 4:
+                showStudentStatistics();
+                break;
+            case 5:
+                showTermAnalytics();
+                break;
+        }
+    }
+    
+    private void showTopStudents() {
+        List<Student> topStudents = studentService.getTopStudentsByGPA(5);
+        
+        System.out.println("\n=== Top 5 Students by GPA ===");
+        if (topStudents.isEmpty()) {
+            System.out.println("No students with grades found.");
+            return;
+        }
+        
+        int rank = 1;
+        for (Student student : topStudents) {
+            System.out.printf("%d. %s - GPA: %.2f%n", 
+                rank++, student.getFullName(), student.calculateGPA());
+        }
+    }
+    
+    private void showGPADistribution() {
+        // Live aggregates - no pass over the students
+        Student.Statistics stats = statisticsEngine.getStudentStatistics();
+        
+        System.out.println("\n=== GPA Distribution ===");
+        for (int band = 0; band < Student.Statistics.GPA_BANDS.length; band++) {
+            if (stats.getBandCount(band) > 0) {
+                System.out.println(Student.Statistics.GPA_BANDS[band] + ": " + stats.getBandCount(band) + " students");
+            }
+        }
+    }
+    
+    private void showCourseStatistics() {
+        Course.Statistics stats = statisticsEngine.getCourseStatistics();
+        
+        System.out.println("\n=== Course Statistics ===");
+        System.out.println("Total Courses: " + stats.getTotalCourses());
+        System.out.println("Active Courses: " + stats.getActiveCourses());
+        
+        System.out.println("\nCourses by Semester:");
+        for (Semester sem : Semester.values()) {
+            if (stats.getCount(sem) > 0) {
+                System.out.println(sem + ": " + stats.getCount(sem));
+            }
+        }
+        
+        System.out.printf("Average Credits per Course: %.2f%n", stats.getAverageCredits());
+    }
+    
+    private void showStudentStatistics() {
+        // Using static nested class
+        Student.Statistics stats = statisticsEngine.getStudentStatistics();
+        
+        System.out.println("\n=== Student Statistics ===");
+        System.out.println("Total Students: " + stats.getTotalStudents());
+        System.out.printf("Average GPA: %.2f%n", stats.getAverageGPA());
+        System.out.printf("Average Credits: %.2f%n", stats.getAverageCredits());
+        
+        System.out.println("\nStudent Status Distribution:");
+        for (StudentStatus status : StudentStatus.values()) {
+            if (stats.getCount(status) > 0) {
+                System.out.println(status + ": " + stats.getCount(status));
+            }
+        }
+    }
+    
+    // Full-population reports, computed in parallel by ReportEngine
+    private void showTermAnalytics() {
+        printPercentilesAndCredits(reportEngine);
+        
+        ReportEngine.GradeHistograms histograms = reportEngine.gradeHistograms();
+        System.out.println("\n=== Grades Recorded by Course ===");
+        List<String> courses = histograms.getCourses();
+        for (int c = 0; c < courses.size(); c++) {
+            StringBuilder line = new StringBuilder(String.format("%-10s", courses.get(c)));
+            for (Grade grade : Grade.values()) {
+                line.append(String.format(" %s:%-4d", grade.getLetter(), histograms.getCount(c, grade)));
+            }
+            System.out.println(line);
+        }
+    }
+    
+    // The reports built from findAll() alone, so --report can run them over mapped snapshots
+    private static void printPercentilesAndCredits(ReportEngine reportEngine) {
+        ReportEngine.GpaPercentiles percentiles = reportEngine.gpaPercentiles();
+        System.out.println("\n=== GPA Percentiles (" + percentiles.getCount() + " graded students) ===");
+        for (double p : new double[] {10, 25, 50, 75, 90, 99}) {
+            System.out.printf("P%-3.0f %.2f%n", p, percentiles.percentile(p));
+        }
+        
+        ReportEngine.CreditMatrix matrix = reportEngine.creditMatrix();
+        System.out.println("\n=== Enrolled Credits by Department and Semester ===");
+        System.out.printf("%-20s", "Department");
+        for (Semester sem : Semester.values()) System.out.printf("%10s", sem);
+        System.out.println();
+        List<String> departments = matrix.getDepartments();
+        for (int d = 0; d < departments.size(); d++) {
+            System.out.printf("%-20s", departments.get(d));
+            for (Semester sem : Semester.values()) System.out.printf("%10d", matrix.getCredits(d, sem));
+            System.out.println();
+        }
+    }
+    
+    // Batch mode: reports over the saved snapshots without starting the menu. A MAPPED
+    // snapshot is opened in place rather than loaded, and changes logged since the last
+    // save are not included.
+    private static void runReport() {
+        AppConfig config = AppConfig.getInstance();
+        Path dataFolder = Paths.get(config.getDataFolderPath());
+        StudentService students = new StudentService();
+        CourseService courses = new CourseService();
+        try {
+            Path courseFile = dataFolder.resolve(config.getSnapshotFormat().fileName("courses"));
+            Path studentFile = dataFolder.resolve(config.getSnapshotFormat().fileName("students"));
+            if (!Files.exists(courseFile) || !Files.exists(studentFile)) {
+                System.err.println("No saved snapshots in " + dataFolder);
+                return;
+            }
+            if (config.getSnapshotFormat() == SnapshotFormat.MAPPED) {
+                courses.openMapped(courseFile);
+                students.openMapped(studentFile);
+            } else {
+                courses.loadFrom(courseFile);
+                students.loadFrom(studentFile);
+            }
+        } catch (Exception e) {
+            System.err.println("Error reading saved data: " + e.getMessage());
+            return;
+        }
+        printPercentilesAndCredits(new ReportEngine(students, courses));
+    }
+    
+    private void manageBackup() {
+        System.out.println("\n=== Backup & File Operations ===");
+        System.out.println("1. Create Backup");
+        System.out.println("2. Show Backup Directory Size");
+        System.out.println("3. List Backup Files");
+        System.out.println("4. Export Data");
+        System.out.println("5. Import Data");
+        System.out.println("6. Restore Backup");
+        System.out.print("Choose option: ");
+        
+        int choice = scanner.nextInt();
+        scanner.nextLine();
+        
+        try {
+            switch (choice) {
+                case 1:
+                    backupService.createBackup(studentService, courseService);
+                    break;
+                case 2:
+                    showBackupSize();
+                    break;
+                case 3:
+                    listBackupFiles();
+                    break;
+                case 4:
+                    exportData();
+                    break;
+                case 5:
+                    importData();
+                    break;
+                case 6:
+                    restoreBackup();
+                    break;
+            }
+        } catch (IOException e) {
+            System.err.println("File operation failed: " + e.getMessage());
+        }
+    }
+    
+    private void showBackupSize() throws IOException {
+        long size = backupService.getTotalBackupSize();
+        
+        System.out.printf("Backup directory size: %d bytes (%.2f KB)%n", 
+            size, size / 1024.0);
+    }
+    
+    private void listBackupFiles() throws IOException {
+        System.out.println("\n=== Backups ===");
+        backupService.printBackupChain();
+        
+        System.out.println("\n=== Backup Directory Contents ===");
+        backupService.listFilesByDepth(
+            java.nio.file.Paths.get(config.getBackupFolderPath()), 3);
+    }
+    
+    private void exportData() {
+        System.out.println("Exporting data...");
+        
+        try {
+            // Changes logged before this point are in the snapshot; later ones are kept
+            long logged = mutationLog == null ? 0 : mutationLog.position();
+            studentService.save();
+            courseService.save();
+            if (mutationLog != null) {
+                mutationLog.checkpoint(logged);
+            }
+            System.out.println("Data exported successfully!");
+        } catch (Exception e) {
+            System.err.println("Export failed: " + e.getMessage());
+        }
+    }
+    
+    private void restoreBackup() throws IOException {
+        List<String> backups = backupService.listBackups();
+        if (backups.isEmpty()) {
+            System.out.println("No backups found.");
+            return;
+        }
+        backupService.printBackupChain();
+        System.out.print("Enter backup to restore: ");
+        String backupId = scanner.nextLine().trim();
+        if (!backups.contains(backupId)) {
+            System.out.println("Backup not found.");
+            return;
+        }
+        
+        BackupService.RestoredData restored = backupService.restore(backupId);
+        try {
+            courseService.clear();
+            studentService.clear();
+            courseService.bulkLoad(restored.getCourses().stream());
+            studentService.bulkLoad(restored.getStudents().stream());
+            System.out.println("Backup restored successfully!");
+        } catch (DuplicateEnrollmentException e) {
+            System.err.println("Restore incomplete: " + e.getMessage());
+        }
+        enrollmentService.recountSeats();
+    }
+    
+    private void importData() {
+        System.out.print("Enter folder containing students.csv and courses.csv (blank for data folder): ");
+        String folder = scanner.nextLine().trim();
+        if (folder.isEmpty()) {
+            folder = config.getDataFolderPath();
+        }
+        
+        try {
+            courseService.loadFrom(java.nio.file.Paths.get(folder, "courses.csv"));
+            studentService.loadFrom(java.nio.file.Paths.get(folder, "students.csv"));
+            System.out.println("Data imported successfully!");
+        } catch (Exception e) {
+            System.err.println("Import failed: " + e.getMessage());
+        }
+        enrollmentService.recountSeats();
+    }
+    
+    private void searchOperations() {
+        System.out.println("\n=== Search Operations ===");
+        System.out.println("1. Search Students by Status");
+        System.out.println("2. Search Students by GPA Range");
+        System.out.println("3. Search Courses by Credits");
+        System.out.println("4. Find Student by Registration No");
+        System.out.println("5. Search Students by Department");
+        System.out.print("Choose search: ");
+        
+        int choice = scanner.nextInt();
+        scanner.nextLine();
+        
+        switch (choice) {
+            case 1:
+                searchStudentsByStatus();
+                break;
+            case 2:
+                searchStudentsByGPA();
+                break;
+            case 3:
+                searchCoursesByCredits();
+                break;
+            case 4:
+                findStudentByRegNo();
+                break;
+            case 5:
+                searchStudentsByDepartment();
+                break;
+        }
+    }
+    
+    private void findStudentByRegNo() {
+        System.out.print("Enter registration number: ");
+        String regNo = scanner.nextLine().trim();
+        
+        Student student = studentService.findByRegNo(regNo);
+        if (student == null) {
+            System.out.println("No student with registration number " + regNo);
+        } else {
+            student.displayProfile();
+        }
+    }
+    
+    private void searchStudentsByDepartment() {
+        System.out.print("Enter department: ");
+        String department = scanner.nextLine().trim();
+        
+        List<Student> results = studentService.findByDepartment(department);
+        
+        System.out.println("\n=== Students in department: " + department + " ===");
+        if (results.isEmpty()) {
+            System.out.println("No students found.");
+        } else {
+            results.forEach(System.out::println);
+        }
+    }
+    
+    private void searchStudentsByStatus() {
+        System.out.println("Select Status:");
+        int statusIndex = 1;
+        for (StudentStatus status : StudentStatus.values()) {
+            System.out.println(statusIndex + ". " + status);
+            statusIndex++;
+        }
+        
+        int choice = scanner.nextInt();
+        StudentStatus selectedStatus = StudentStatus.values()[choice - 1];
+        
+        List<Student> results = studentService.findByStatus(selectedStatus);
+        
+        System.out.println("\n=== Students with status: " + selectedStatus + " ===");
+        if (results.isEmpty()) {
+            System.out.println("No students found.");
+        } else {
+            results.forEach(System.out::println);
+        }
+    }
+    
+    private void searchStudentsByGPA() {
+        System.out.print("Enter minimum GPA: ");
+        double minGPA = scanner.nextDouble();
+        
+        // Range lookup on the GPA index; ungraded students sit at 0.0 there
+        List<Student> results = studentService.findByGpaRange(minGPA, null).stream()
+            .filter(Student::hasGrades)
+            .collect(Collectors.toList());
+        
+        System.out.println("\n=== Students with GPA >= " + minGPA + " ===");
+        if (results.isEmpty()) {
+            System.out.println("No students found.");
+        } else {
+            results.stream()
+                .sorted(Comparators.BY_GPA)
+                .forEach(s -> System.out.printf("%s - GPA: %.2f%n", 
+                    s.getFullName(), s.calculateGPA()));
+        }
+    }
+    
+    private void searchCoursesByCredits() {
+        System.out.print("Enter minimum credits: ");
+        int minCredits = scanner.nextInt();
+        
+        // Range lookup on the credits index
+        List<Course> results = courseService.findByCreditRange(minCredits, null);
+        
+        System.out.println("\n=== Courses with credits >= " + minCredits + " ===");
+        if (results.isEmpty()) {
+            System.out.println("No courses found.");
+        } else {
+            results.stream()
+                .sorted(Comparators.BY_CREDITS)
+                .forEach(System.out::println);
+        }
+    }
+    
+    private void displayPlatformInfo() {
+        System.out.println("\n=== Java Platform Information ===");
+        System.out.println("Java SE (Standard Edition): Core Java platform for desktop and server applications");
+        System.out.println("Java ME (Micro Edition): For mobile and embedded devices");
+        System.out.println("Java EE (Enterprise Edition): For enterprise applications with web services");
+        System.out.println("Current Application: CCRM runs on Java SE");
+        System.out.println("JDK: Development kit with compiler, JRE: Runtime environment, JVM: Virtual machine");
+    }
+    
+    // Demonstration of operator precedence and bitwise operations
+    private void demonstrateOperators() {
+        int a = 10, b = 3, c = 5;
+        
+        // Arithmetic and precedence: * has higher precedence than +
+        int result1 = a + b * c; // 10 + (3 * 5) = 25
+        
+        // Relational and logical
+        boolean result2 = (a > b) && (c < a); // true && true = true
+        
+        // Bitwise operations
+        int result3 = a & b; // 10 & 3 = 2 (binary: 1010 & 0011 = 0010)
+        int result4 = a | b; // 10 | 3 = 11 (binary: 1010 | 0011 = 1011)
+        
+        System.out.println("Operator demonstrations:");
+        System.out.println("a + b * c = " + result1);
+        System.out.println("(a > b) && (c < a) = " + result2);
+        System.out.println("a & b = " + result3);
+        System.out.println("a | b = " + result4);
+    }
+    
+    // Method demonstrating upcast and downcast with instanceof
+    private void demonstratePolymorphism() {
+        // Upcast (automatic)
+        Person person = new Student("S999", new Name("Test", "User"), "test@example.com", "REG999");
+        
+        System.out.println("Polymorphism demonstration:");
+        person.displayProfile(); // Calls Student's overridden method
+        
+        // Downcast (explicit) with instanceof check
+        if (person instanceof Student) {
+            Student student = (Student) person; // Safe downcast
+            System.out.println("Downcast successful: " + student.getRegNo());
+        }
+    }
+    
+    // Method overloading example
+    public void displayInfo(String message) {
+        System.out.println("Info: " + message);
+    }
+    
+    public void displayInfo(String title, String message) {
+        System.out.println(title + ": " + message);
+    }
+    
+    public void displayInfo(int code, String message) {
+        System.out.println("Code " + code + ": " + message);
+    }
+    
+    public static void main(String[] args) {
+        // Enable assertions with -ea flag
+        System.out.println("Starting CCRM Application...");
+        System.out.println("Note: Run with -ea flag to enable assertions");
+        
+        if (args.length > 0 && args[0].equals("--report")) {
+            runReport();
+            return;
+        }
+        
+        CCRMApplication app = new CCRMApplication();
+        
+        // Demonstrate method overloading
+        app.displayInfo("Application initialized");
+        app.displayInfo("Status", "Ready to start");
+        app.displayInfo(200, "System OK");
+        
+        // Demonstrate operators and polymorphism
+        app.demonstrateOperators();
+        app.demonstratePolymorphism();
+        
+        // Start the main application
+        app.start();
+    }
+}
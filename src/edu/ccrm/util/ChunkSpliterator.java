@@ -0,0 +1,60 @@
+package edu.ccrm.util;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+// Spliterator over an array snapshot that halves its range on every split and stops
+// splitting below a minimum chunk, so fork-join tasks get evenly sized leaves that are
+// large enough to outweigh the task overhead.
+public class ChunkSpliterator<T> implements Spliterator<T> {
+    private final T[] items;
+    private final int minChunk;
+    private int from;
+    private final int to;
+    
+    public ChunkSpliterator(T[] items, int minChunk) {
+        this(items, 0, items.length, minChunk);
+    }
+    
+    private ChunkSpliterator(T[] items, int from, int to, int minChunk) {
+        this.items = items;
+        this.from = from;
+        this.to = to;
+        this.minChunk = Math.max(1, minChunk);
+    }
+    
+    @Override
+    public ChunkSpliterator<T> trySplit() {
+        int remaining = to - from;
+        if (remaining < 2 * minChunk) return null;
+        int mid = from + remaining / 2;
+        ChunkSpliterator<T> prefix = new ChunkSpliterator<>(items, from, mid, minChunk);
+        from = mid;
+        return prefix;
+    }
+    
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        if (from >= to) return false;
+        action.accept(items[from++]);
+        return true;
+    }
+    
+    @Override
+    public void forEachRemaining(Consumer<? super T> action) {
+        for (int i = from; i < to; i++) {
+            action.accept(items[i]);
+        }
+        from = to;
+    }
+    
+    @Override
+    public long estimateSize() {
+        return to - from;
+    }
+    
+    @Override
+    public int characteristics() {
+        return ORDERED | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+    }
+}
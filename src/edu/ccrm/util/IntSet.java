@@ -0,0 +1,136 @@
+package edu.ccrm.util;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+// Hash set of non-negative ints in a single int[] - no boxing, no per-entry objects.
+// Open addressing with linear probing; removal shifts later entries of the probe run
+// back into the gap instead of leaving tombstones, so lookups never slow down with
+// churn. Not thread-safe: owners guard it with their own lock.
+public class IntSet {
+    private static final int FREE = -1;
+    private static final int MIN_CAPACITY = 4;
+    
+    private int[] slots;
+    private int size;
+    
+    public IntSet() {
+        this(MIN_CAPACITY);
+    }
+    
+    public IntSet(int expectedSize) {
+        this.slots = newTable(tableSizeFor(expectedSize));
+    }
+    
+    public boolean add(int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("IntSet holds non-negative values only: " + value);
+        }
+        if ((size + 1) * 4 > slots.length * 3) { // Keep load factor at or below 0.75
+            rehash(slots.length * 2);
+        }
+        int mask = slots.length - 1;
+        int i = slot(value, mask);
+        while (slots[i] != FREE) {
+            if (slots[i] == value) return false;
+            i = (i + 1) & mask;
+        }
+        slots[i] = value;
+        size++;
+        return true;
+    }
+    
+    public boolean contains(int value) {
+        return value >= 0 && indexOf(value) >= 0;
+    }
+    
+    public boolean remove(int value) {
+        int gap = value < 0 ? -1 : indexOf(value);
+        if (gap < 0) {
+            return false;
+        }
+        int mask = slots.length - 1;
+        int i = gap;
+        while (true) {
+            i = (i + 1) & mask;
+            int moved = slots[i];
+            if (moved == FREE) break;
+            // An entry may fill the gap only if its home slot is not between the gap and itself
+            int home = slot(moved, mask);
+            if (((i - home) & mask) >= ((i - gap) & mask)) {
+                slots[gap] = moved;
+                gap = i;
+            }
+        }
+        slots[gap] = FREE;
+        size--;
+        return true;
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    public boolean isEmpty() {
+        return size == 0;
+    }
+    
+    public void clear() {
+        Arrays.fill(slots, FREE);
+        size = 0;
+    }
+    
+    public void forEach(IntConsumer action) {
+        for (int value : slots) {
+            if (value != FREE) action.accept(value);
+        }
+    }
+    
+    public int[] toArray() {
+        int[] values = new int[size];
+        int n = 0;
+        for (int value : slots) {
+            if (value != FREE) values[n++] = value;
+        }
+        return values;
+    }
+    
+    private int indexOf(int value) {
+        int mask = slots.length - 1;
+        int i = slot(value, mask);
+        while (slots[i] != FREE) {
+            if (slots[i] == value) return i;
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+    
+    private void rehash(int capacity) {
+        int[] old = slots;
+        slots = newTable(capacity);
+        int mask = capacity - 1;
+        for (int value : old) {
+            if (value == FREE) continue;
+            int i = slot(value, mask);
+            while (slots[i] != FREE) i = (i + 1) & mask;
+            slots[i] = value;
+        }
+    }
+    
+    // Dense IDs are sequential, so spread them before masking
+    private static int slot(int value, int mask) {
+        int h = value * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+    
+    private static int tableSizeFor(int expectedSize) {
+        int needed = Math.max(MIN_CAPACITY, (int) Math.ceil(expectedSize / 0.75));
+        return Integer.highestOneBit(needed - 1) << 1;
+    }
+    
+    private static int[] newTable(int capacity) {
+        int[] table = new int[capacity];
+        Arrays.fill(table, FREE);
+        return table;
+    }
+}
@@ -0,0 +1,78 @@
+package edu.ccrm.util;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+// Secondary index from a key to every value carrying it. The bucket map is supplied
+// by the caller: a ConcurrentHashMap for hashed keys, a ConcurrentSkipListMap for
+// ordered keys, or forEnum() for a fully pre-populated EnumMap.
+//
+// Safe for concurrent use. Buckets are concurrent sets and are never removed once
+// created (key spaces here are small), so add/remove never race a bucket being
+// dropped. Empty buckets are invisible through the public methods.
+public class MultiIndex<K, V> {
+    private final Map<K, Set<V>> buckets;
+    
+    public MultiIndex(Supplier<? extends Map<K, Set<V>>> mapFactory) {
+        this.buckets = mapFactory.get();
+    }
+    
+    // Every bucket exists up front, so the EnumMap itself is never modified after construction
+    public static <E extends Enum<E>, V> MultiIndex<E, V> forEnum(Class<E> type) {
+        return new MultiIndex<>(() -> {
+            Map<E, Set<V>> map = new EnumMap<>(type);
+            for (E key : type.getEnumConstants()) {
+                map.put(key, ConcurrentHashMap.newKeySet());
+            }
+            return map;
+        });
+    }
+    
+    public void add(K key, V value) {
+        buckets.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(value);
+    }
+    
+    public void remove(K key, V value) {
+        Set<V> bucket = buckets.get(key);
+        if (bucket != null) {
+            bucket.remove(value);
+        }
+    }
+    
+    // Re-files a value whose key changed
+    public void move(K oldKey, K newKey, V value) {
+        if (!Objects.equals(oldKey, newKey)) {
+            remove(oldKey, value);
+            add(newKey, value);
+        }
+    }
+    
+    public List<V> get(K key) {
+        Set<V> bucket = buckets.get(key);
+        return bucket == null ? new ArrayList<>() : new ArrayList<>(bucket);
+    }
+    
+    public int count(K key) {
+        Set<V> bucket = buckets.get(key);
+        return bucket == null ? 0 : bucket.size();
+    }
+    
+    public Set<K> keys() {
+        Set<K> keys = new LinkedHashSet<>();
+        buckets.forEach((key, bucket) -> {
+            if (!bucket.isEmpty()) keys.add(key);
+        });
+        return keys;
+    }
+    
+    public void clear() {
+        for (Set<V> bucket : buckets.values()) {
+            bucket.clear();
+        }
+    }
+    
+    protected Map<K, Set<V>> buckets() {
+        return buckets;
+    }
+}
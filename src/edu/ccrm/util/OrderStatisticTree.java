@@ -0,0 +1,151 @@
+package edu.ccrm.util;
+
+import java.util.*;
+
+// Sorted set that also answers "position of x" and "k-th element" in O(log n).
+// Implemented as a treap: a binary search tree on the comparator, heap-ordered on
+// random priorities so it stays balanced in expectation, with each node storing the
+// size of its subtree. Elements equal under the comparator are treated as the same.
+public class OrderStatisticTree<T> {
+    private static class Node<T> {
+        final T value;
+        final int priority;
+        int size = 1;
+        Node<T> left;
+        Node<T> right;
+        
+        Node(T value, int priority) {
+            this.value = value;
+            this.priority = priority;
+        }
+    }
+    
+    private final Comparator<? super T> comparator;
+    private final Random priorities = new Random();
+    private Node<T> root;
+    
+    public OrderStatisticTree(Comparator<? super T> comparator) {
+        this.comparator = comparator;
+    }
+    
+    public int size() {
+        return size(root);
+    }
+    
+    public boolean isEmpty() {
+        return root == null;
+    }
+    
+    public void clear() {
+        root = null;
+    }
+    
+    public boolean add(T value) {
+        if (rank(value) >= 0) return false;
+        Node<T>[] parts = split(root, value, false);
+        root = merge(merge(parts[0], new Node<>(value, priorities.nextInt())), parts[1]);
+        return true;
+    }
+    
+    public boolean remove(T value) {
+        Node<T>[] lower = split(root, value, false);   // < value | >= value
+        Node<T>[] upper = split(lower[1], value, true); // == value | > value
+        root = merge(lower[0], upper[1]);
+        return upper[0] != null;
+    }
+    
+    // Zero-based position of the value in sorted order, or -1 if it is not present
+    public int rank(T value) {
+        int before = 0;
+        Node<T> node = root;
+        while (node != null) {
+            int cmp = comparator.compare(value, node.value);
+            if (cmp < 0) {
+                node = node.left;
+            } else if (cmp > 0) {
+                before += size(node.left) + 1;
+                node = node.right;
+            } else {
+                return before + size(node.left);
+            }
+        }
+        return -1;
+    }
+    
+    // Element at the zero-based position in sorted order
+    public T get(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size());
+        }
+        Node<T> node = root;
+        while (true) {
+            int leftSize = size(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index > leftSize) {
+                index -= leftSize + 1;
+                node = node.right;
+            } else {
+                return node.value;
+            }
+        }
+    }
+    
+    // The first k elements in sorted order - an in-order walk that stops after k
+    public List<T> first(int k) {
+        List<T> result = new ArrayList<>(Math.max(0, Math.min(k, size())));
+        Deque<Node<T>> stack = new ArrayDeque<>();
+        Node<T> node = root;
+        while (result.size() < k && (node != null || !stack.isEmpty())) {
+            while (node != null) {
+                stack.push(node);
+                node = node.left;
+            }
+            node = stack.pop();
+            result.add(node.value);
+            node = node.right;
+        }
+        return result;
+    }
+    
+    // Splits into (< value, >= value), or (<= value, > value) when inclusive is set
+    @SuppressWarnings("unchecked")
+    private Node<T>[] split(Node<T> node, T value, boolean inclusive) {
+        if (node == null) return (Node<T>[]) new Node<?>[] { null, null };
+        int cmp = comparator.compare(node.value, value);
+        if (cmp < 0 || (inclusive && cmp == 0)) {
+            Node<T>[] parts = split(node.right, value, inclusive);
+            node.right = parts[0];
+            update(node);
+            parts[0] = node;
+            return parts;
+        }
+        Node<T>[] parts = split(node.left, value, inclusive);
+        node.left = parts[1];
+        update(node);
+        parts[1] = node;
+        return parts;
+    }
+    
+    // Every element of a sorts before every element of b
+    private Node<T> merge(Node<T> a, Node<T> b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        if (a.priority > b.priority) {
+            a.right = merge(a.right, b);
+            update(a);
+            return a;
+        }
+        b.left = merge(a, b.left);
+        update(b);
+        return b;
+    }
+    
+    private static <T> int size(Node<T> node) {
+        return node == null ? 0 : node.size;
+    }
+    
+    private static <T> void update(Node<T> node) {
+        node.size = 1 + size(node.left) + size(node.right);
+    }
+}
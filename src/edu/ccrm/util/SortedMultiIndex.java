@@ -0,0 +1,40 @@
+package edu.ccrm.util;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+// MultiIndex over ordered keys, adding range lookups. Buckets live in a
+// ConcurrentSkipListMap, so a range query visits only the keys inside the bounds.
+public class SortedMultiIndex<K extends Comparable<K>, V> extends MultiIndex<K, V> {
+    
+    public SortedMultiIndex() {
+        super(ConcurrentSkipListMap::new);
+    }
+    
+    // Values whose key lies in [from, to]; a null bound leaves that side open
+    public List<V> range(K from, K to) {
+        List<V> values = new ArrayList<>();
+        for (Set<V> bucket : slice(from, to).values()) {
+            values.addAll(bucket);
+        }
+        return values;
+    }
+    
+    public int countRange(K from, K to) {
+        int count = 0;
+        for (Set<V> bucket : slice(from, to).values()) {
+            count += bucket.size();
+        }
+        return count;
+    }
+    
+    private NavigableMap<K, Set<V>> slice(K from, K to) {
+        NavigableMap<K, Set<V>> buckets = (NavigableMap<K, Set<V>>) buckets();
+        if (from != null && to != null) {
+            return from.compareTo(to) > 0 ? Collections.emptyNavigableMap() : buckets.subMap(from, true, to, true);
+        }
+        if (from != null) return buckets.tailMap(from, true);
+        if (to != null) return buckets.headMap(to, true);
+        return buckets;
+    }
+}
@@ -0,0 +1,25 @@
+package edu.ccrm.util;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+// Fixed pool of locks shared out by key hash. Operations on the same key always get
+// the same lock, while unrelated keys rarely collide - per-record locking without a
+// lock object per record.
+public class StripedLocks {
+    private final ReentrantLock[] locks;
+    private final int mask;
+    
+    public StripedLocks(int stripes) {
+        int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1; // Next power of two
+        this.locks = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+    }
+    
+    public ReentrantLock get(Object key) {
+        int h = key.hashCode();
+        return locks[(h ^ (h >>> 16)) & mask];
+    }
+}
@@ -0,0 +1,75 @@
+package edu.ccrm.util;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Interns strings to dense int IDs (0, 1, 2, ...) so records can hold a 4-byte ID instead
+// of their own copy of a value shared by thousands of others. IDs are never reused or
+// freed; tables are meant for small vocabularies such as departments and course codes.
+//
+// null maps to NOT_FOUND and back, so optional values need no special casing.
+//
+// Safe for concurrent use. Lookups in both directions are lock-free; only the first
+// intern of a new value takes the table's lock.
+public class SymbolTable {
+    public static final int NOT_FOUND = -1;
+    
+    private final String name;
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private volatile String[] values = new String[64];
+    private int size; // Guarded by this
+    
+    public SymbolTable(String name) {
+        this.name = name;
+    }
+    
+    public int intern(String value) {
+        if (value == null) {
+            return NOT_FOUND;
+        }
+        Integer id = ids.get(value);
+        if (id != null) {
+            return id;
+        }
+        synchronized (this) {
+            id = ids.get(value);
+            if (id != null) {
+                return id;
+            }
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size] = value;
+            // Published after the value is in place, so any reader holding the ID can resolve it
+            ids.put(value, size);
+            return size++;
+        }
+    }
+    
+    // ID of an already-interned value, or NOT_FOUND - never adds to the table
+    public int idOf(String value) {
+        Integer id = value == null ? null : ids.get(value);
+        return id == null ? NOT_FOUND : id;
+    }
+    
+    public String valueOf(int id) {
+        if (id == NOT_FOUND) {
+            return null;
+        }
+        String[] current = values;
+        if (id < 0 || id >= current.length || current[id] == null) {
+            throw new IllegalArgumentException("Unknown " + name + " ID: " + id);
+        }
+        return current[id];
+    }
+    
+    public int size() {
+        return ids.size();
+    }
+    
+    @Override
+    public String toString() {
+        return "SymbolTable[" + name + ", " + size() + " values]";
+    }
+}